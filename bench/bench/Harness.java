@@ -0,0 +1,156 @@
+package bench;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public final class Harness {
+
+    public interface Op {
+        long run(int i);
+    }
+
+    public static final class Result {
+        public final String name;
+        public final double opsPerSec;
+        public final double nsPerOp;
+        public final double bytesPerOp;
+
+        Result(String name, double opsPerSec, double nsPerOp, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSec = opsPerSec;
+            this.nsPerOp = nsPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public double allocMbPerSec() {
+            return bytesPerOp * opsPerSec / (1024.0 * 1024.0);
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS  = 5;
+    private static final int MEASURE_ITERATIONS = 5;
+    private static final long WARMUP_NANOS      = 200_000_000L;
+    private static final long MEASURE_NANOS     = 500_000_000L;
+
+    private static volatile long sink;
+
+    private final List<Result> results = new ArrayList<>();
+    private final String filter;
+    private final Path baseline;
+    private final Path save;
+
+    private Harness(String filter, Path baseline, Path save) {
+        this.filter = filter;
+        this.baseline = baseline;
+        this.save = save;
+    }
+
+    public static Harness fromArgs(String[] args) {
+        String filter = null;
+        Path baseline = null, save = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--baseline") && i + 1 < args.length) baseline = Paths.get(args[++i]);
+            else if (args[i].equals("--save") && i + 1 < args.length) save = Paths.get(args[++i]);
+            else filter = args[i];
+        }
+        return new Harness(filter, baseline, save);
+    }
+
+    public void bench(String name, Op op) {
+        if (filter != null && !name.contains(filter)) return;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) runFor(op, WARMUP_NANOS);
+
+        long ops = 0, nanos = 0, bytes = 0;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            long[] r = runFor(op, MEASURE_NANOS);
+            ops += r[0]; nanos += r[1]; bytes += r[2];
+        }
+        Result result = new Result(name, ops * 1e9 / nanos, (double) nanos / ops, (double) bytes / ops);
+        results.add(result);
+        System.out.println(format(result));
+    }
+
+    public void finish() throws IOException {
+        if (baseline != null && Files.exists(baseline)) {
+            Map<String, Result> base = load(baseline);
+            System.out.println();
+            System.out.println(String.format(Locale.ROOT, "%-44s %12s %12s", "vs " + baseline, "ns/op", "B/op"));
+            for (Result r : results) {
+                Result b = base.get(r.name);
+                if (b == null) continue;
+                System.out.println(String.format(Locale.ROOT, "%-44s %+11.1f%% %+11.1f%%", r.name,
+                        delta(b.nsPerOp, r.nsPerOp), delta(b.bytesPerOp, r.bytesPerOp)));
+            }
+        }
+        if (save != null) {
+            List<String> lines = new ArrayList<>();
+            for (Result r : results) {
+                lines.add(String.format(Locale.ROOT, "%s %.1f %.2f %.1f", r.name, r.opsPerSec, r.nsPerOp, r.bytesPerOp));
+            }
+            Files.write(save, lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void header() {
+        System.out.println(String.format(Locale.ROOT, "%-44s %14s %12s %10s %10s",
+                "benchmark", "ops/s", "ns/op", "B/op", "MB/s"));
+    }
+
+    private static String format(Result r) {
+        return String.format(Locale.ROOT, "%-44s %14.0f %12.1f %10.1f %10.1f",
+                r.name, r.opsPerSec, r.nsPerOp, r.bytesPerOp, r.allocMbPerSec());
+    }
+
+    // Saved runs keep one decimal of B/op, so anything below that counts as zero.
+    private static double delta(double before, double after) {
+        if (before == 0) return after < 0.05 ? 0 : 100;
+        return (after - before) / before * 100.0;
+    }
+
+    private static Map<String, Result> load(Path file) throws IOException {
+        Map<String, Result> map = new HashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] p = line.trim().split(" ");
+            if (p.length != 4) continue;
+            map.put(p[0], new Result(p[0], Double.parseDouble(p[1]), Double.parseDouble(p[2]), Double.parseDouble(p[3])));
+        }
+        return map;
+    }
+
+    private static long[] runFor(Op op, long budget) {
+        long startBytes = allocatedBytes();
+        long start = System.nanoTime();
+        long deadline = start + budget;
+        long ops = 0;
+        long acc = 0;
+        long now;
+        do {
+            for (int i = 0; i < 1024; i++) {
+                acc += op.run((int) ops + i);
+            }
+            ops += 1024;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long bytes = allocatedBytes() - startBytes;
+        sink += acc;
+        return new long[]{ops, now - start, bytes};
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
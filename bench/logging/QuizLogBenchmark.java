@@ -0,0 +1,94 @@
+package logging;
+
+import bench.Harness;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Cost of a log call against a synchronous println to a file, then 4 threads logging
+// 10k entries each: the rolled files must hold every entry exactly once.
+public class QuizLogBenchmark {
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("quizlog");
+        System.setProperty("mathquiz.logging.file", dir.resolve("quiz.log").toString());
+        System.setProperty("mathquiz.logging.capacity", String.valueOf(1 << 16));
+        System.setProperty("mathquiz.logging.maxBytes", String.valueOf(1 << 20));
+        System.setProperty("mathquiz.logging.files", "20");
+        System.setProperty("mathquiz.logging.console", "false");
+
+        Harness harness = Harness.fromArgs(args);
+        Harness.header();
+        LogSite limited = new LogSite("bench.limited", QuizLog.Level.WARN, 1);
+        harness.bench("log.rateLimited", i -> {
+            limited.log("Generated invalid question, retrying", "attempt", i);
+            return i;
+        });
+
+        LogRing ring = new LogRing(1024);
+        LogSite site = new LogSite("bench.ring", QuizLog.Level.WARN);
+        harness.bench("log.ringOfferDrain", i -> {
+            ring.offer(site, 0, "Generated invalid question, retrying", "attempt", i, null, 0);
+            long v = ring.peek().value;
+            ring.release();
+            return v;
+        });
+
+        try (PrintStream out = new PrintStream(new FileOutputStream(dir.resolve("println.log").toFile()), true)) {
+            harness.bench("println.file", i -> {
+                out.println("[WARN] Attempt " + i + ": Generated invalid question, retrying...");
+                return i;
+            });
+        }
+        harness.finish();
+
+        System.out.println();
+        checkConcurrent(dir);
+    }
+
+    private static void checkConcurrent(Path dir) throws Exception {
+        LogSite site = new LogSite("bench.concurrent", QuizLog.Level.INFO, Integer.MAX_VALUE);
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++) site.log("entry", "n", id * PER_THREAD + i);
+            }, "bench-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) worker.join();
+        long producerNanos = System.nanoTime() - start;
+        QuizLog.flush(10_000);
+
+        boolean[] seen = new boolean[THREADS * PER_THREAD];
+        int files = 0, lines = 0, duplicates = 0;
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) paths::iterator) {
+                if (!p.getFileName().toString().startsWith("quiz.log")) continue;
+                files++;
+                for (String line : Files.readAllLines(p)) {
+                    if (!line.contains("\"site\":\"bench.concurrent\"")) continue;
+                    int n = Integer.parseInt(line.substring(line.indexOf("\"n\":") + 4, line.indexOf('}')));
+                    if (seen[n]) duplicates++;
+                    seen[n] = true;
+                    lines++;
+                }
+            }
+        }
+        int missing = 0;
+        for (boolean s : seen) if (!s) missing++;
+        System.out.printf("%d threads x %d entries: %.1f ns/entry on the producers, %d files, %d lines, %d missing, %d duplicates%n",
+                          THREADS, PER_THREAD, (double) producerNanos / (THREADS * PER_THREAD), files, lines,
+                          missing, duplicates);
+        if (missing > 0 || duplicates > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+// Randomized equivalence check of AnswerFormat.formatDecimal against the original
+// BigDecimal formatting. Exits with status 1 on the first mismatches.
+public class AnswerFormatCheck {
+
+    public static void main(String[] args) {
+        long samples = (args.length > 0) ? Long.parseLong(args[0]) : 20_000_000L;
+        long seed    = (args.length > 1) ? Long.parseLong(args[1]) : 42L;
+        SplittableRandom rng = new SplittableRandom(seed);
+
+        int mismatches = 0;
+        for (long i = 0; i < samples && mismatches < 10; i++) {
+            double value = sample(rng, (int) (i % 6));
+            String expected = legacyFormat(value);
+            String actual = AnswerFormat.formatDecimal(value);
+            if (!expected.equals(actual)) {
+                System.out.println("MISMATCH " + value + " (" + Double.doubleToRawLongBits(value) + "): expected "
+                        + expected + ", got " + actual);
+                mismatches++;
+            }
+        }
+
+        if (mismatches > 0) System.exit(1);
+        System.out.println("OK " + samples + " values, seed " + seed);
+    }
+
+    private static double sample(SplittableRandom rng, int kind) {
+        double sign = rng.nextBoolean() ? 1 : -1;
+        switch (kind) {
+            case 0:  return sign * rng.nextInt(1_000_000) / 100.0;
+            case 1:  return sign * rng.nextInt(100_000) / (double) (rng.nextInt(99) + 2);
+            case 2:  return sign * rng.nextDouble() * Math.pow(10, rng.nextInt(30) - 10);
+            case 3:  return Double.longBitsToDouble(rng.nextLong());
+            case 4:  return Math.nextAfter(rng.nextInt(100_000) / 100.0, rng.nextBoolean() ? 1e300 : -1e300);
+            default: return sign * (rng.nextInt(1000) + rng.nextInt(1000) / 1000.0);
+        }
+    }
+
+    static String legacyFormat(double value) {
+        if (Double.isInfinite(value)) return "tak terhingga";
+        if (Double.isNaN(value))      return "undefined";
+        if (value == Math.floor(value) && !Double.isInfinite(value))
+            return String.valueOf((long) value);
+
+        BigDecimal bd = BigDecimal.valueOf(value).stripTrailingZeros();
+        if (bd.scale() > 2) bd = bd.setScale(2, RoundingMode.DOWN);
+        return bd.toPlainString().replace('.', ',');
+    }
+}
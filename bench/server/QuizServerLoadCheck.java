@@ -0,0 +1,103 @@
+package server;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Loopback check that per-request latency stays flat as the number of live sessions
+// grows: for each session count, creates the sessions, then times question/answer
+// round trips against random sessions from a fixed number of client threads.
+public class QuizServerLoadCheck {
+    private static final int CLIENTS = 16;
+    private static final int REQUESTS_PER_CLIENT = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int[] sessionCounts = {10, 1_000, 5_000};
+        QuizServer.enableNoDelay();
+        QuizServer server = new QuizServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(CLIENTS)).build();
+        String base = "http://127.0.0.1:" + server.getPort();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+
+        System.out.printf("%-10s %10s %10s %10s %12s%n", "sessions", "p50 us", "p99 us", "max us", "req/s");
+        try {
+            List<String> ids = new ArrayList<>();
+            for (int count : sessionCounts) {
+                while (ids.size() < count) ids.add(startSession(client, base, ids.size()));
+                runRound(client, base, ids, clients, 1);
+                long[] latencies = runRound(client, base, ids, clients, 7);
+                report(count, latencies);
+            }
+        } finally {
+            clients.shutdownNow();
+            server.stop();
+        }
+        System.exit(0);
+    }
+
+    private static long[] runRound(HttpClient client, String base, List<String> ids,
+                                   ExecutorService clients, long seed) throws Exception {
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            final SplittableRandom rng = new SplittableRandom(seed * 31 + c);
+            futures.add(clients.submit(() -> {
+                long[] samples = new long[REQUESTS_PER_CLIENT];
+                for (int i = 0; i < samples.length; i++) {
+                    String id = ids.get(rng.nextInt(ids.size()));
+                    long t0 = System.nanoTime();
+                    if ((i & 1) == 0) send(client, "GET", base + "/question?session=" + id);
+                    else send(client, "POST", base + "/answer?session=" + id + "&option=" + rng.nextInt(4));
+                    samples[i] = System.nanoTime() - t0;
+                }
+                return samples;
+            }));
+        }
+        long[] all = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        int n = 0;
+        for (Future<long[]> f : futures) {
+            long[] samples = f.get();
+            System.arraycopy(samples, 0, all, n, samples.length);
+            n += samples.length;
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return all;
+    }
+
+    private static long elapsedNanos;
+
+    private static void report(int sessions, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%-10d %10.1f %10.1f %10.1f %12.0f%n", sessions,
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) (latencies.length * 0.99)] / 1e3,
+                latencies[latencies.length - 1] / 1e3,
+                latencies.length / (elapsedNanos / 1e9));
+    }
+
+    private static String startSession(HttpClient client, String base, int n) throws Exception {
+        String body = send(client, "POST", base + "/session?name=bot" + n);
+        int start = body.indexOf("\"session\":\"") + 11;
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private static String send(HttpClient client, String method, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 && response.statusCode() != 409)
+            throw new IllegalStateException(url + " -> " + response.statusCode() + " " + response.body());
+        return response.body();
+    }
+}
@@ -0,0 +1,80 @@
+package service;
+
+import bench.Harness;
+import model.MathQuestion;
+import model.Player;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Append cost of the answer log, then a crash-recovery check: plays games against a
+// log that is never closed, reopens the directory and compares the rebuilt player with
+// the live one, timing the reopen.
+public class AnswerLogBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Harness harness = Harness.fromArgs(args);
+        Harness.header();
+
+        Path appendDir = Files.createTempDirectory("answer-log-bench");
+        final AnswerLog log = new AnswerLog(appendDir);
+        final Player player = new Player("bench");
+        log.startSession(player);
+        harness.bench("answerLog.append", i -> {
+            log.onAnswer(player, (i & 7) == 0 ? AnswerOutcome.WRONG : AnswerOutcome.CORRECT, 10);
+            return i;
+        });
+        harness.finish();
+        log.close();
+
+        RandomSource rng = new RandomSource(42);
+        int checked = 0;
+        long worstNanos = 0;
+        for (int game = 0; game < 200; game++) {
+            Path dir = Files.createTempDirectory("answer-log-check");
+            AnswerLog live = new AnswerLog(dir, 50, 1 + rng.nextInt(40));
+            GameService service = new GameService("p" + game, new QuestionGenerator(game));
+            service.startNewQuestion();
+            live.startSession(service.getPlayer());
+            service.setListener(live);
+
+            int answers = rng.nextInt(120);
+            for (int a = 0; a < answers && !service.isGameOver() && !service.isQuizComplete(); a++) {
+                MathQuestion q = service.getCurrentQuestion();
+                service.submitAnswer(rng.nextInt(10) < 9 ? q.getCorrectIndex() : (q.getCorrectIndex() + 1) % 4);
+                if (rng.nextInt(16) == 0) live.compact();
+            }
+
+            long start = System.nanoTime();
+            AnswerLog reopened = new AnswerLog(dir);
+            worstNanos = Math.max(worstNanos, System.nanoTime() - start);
+            Player restored = reopened.getRecovered();
+            Player expected = service.getPlayer();
+            boolean ended = service.isGameOver() || service.isQuizComplete();
+            if (ended ? restored != null : !same(expected, restored)) {
+                throw new IllegalStateException("game " + game + ": expected " + describe(expected)
+                        + (ended ? " (ended)" : "") + ", recovered " + describe(restored));
+            }
+            reopened.close();
+            live.close();
+            checked++;
+        }
+        System.out.println(String.format(Locale.ROOT, "%nrecovery: %d games rebuilt, worst reopen %.2f ms",
+                checked, worstNanos / 1e6));
+    }
+
+    private static boolean same(Player a, Player b) {
+        return b != null && a.getName().equals(b.getName()) && a.getScore() == b.getScore()
+                && a.getLevel() == b.getLevel() && a.getLives() == b.getLives()
+                && a.getQuestionsAnswered() == b.getQuestionsAnswered()
+                && a.getLevelProgress().getQuestionsInCurrentLevel() == b.getLevelProgress().getQuestionsInCurrentLevel();
+    }
+
+    private static String describe(Player p) {
+        if (p == null) return "none";
+        return p.getName() + "[score=" + p.getScore() + ", level=" + p.getLevel() + ", lives=" + p.getLives()
+                + ", answered=" + p.getQuestionsAnswered()
+                + ", progress=" + p.getLevelProgress().getQuestionsInCurrentLevel() + "]";
+    }
+}
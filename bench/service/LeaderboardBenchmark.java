@@ -0,0 +1,68 @@
+package service;
+
+import bench.Harness;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Leaderboard at one million players: single-thread update, top-100 and rank costs via
+// the harness, then multi-threaded update throughput.
+public class LeaderboardBenchmark {
+    private static final int PLAYERS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Harness harness = Harness.fromArgs(args);
+        final String[] names = new String[PLAYERS];
+        final Leaderboard board = new Leaderboard();
+        SplittableRandom seed = new SplittableRandom(42);
+        for (int i = 0; i < PLAYERS; i++) {
+            names[i] = "player" + i;
+            board.submit(names[i], seed.nextInt(Leaderboard.DEFAULT_MAX_SCORE / 2));
+        }
+
+        Harness.header();
+        final RandomSource rng = new RandomSource(7);
+        harness.bench("leaderboard.submit", i -> improve(board, names[rng.nextInt(PLAYERS)], rng) ? 1 : 0);
+        harness.bench("leaderboard.top100", i -> board.top(100).size());
+        harness.bench("leaderboard.rank", i -> board.rank(names[rng.nextInt(PLAYERS)]));
+        harness.finish();
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        System.out.println();
+        for (int t = 1; t <= threads; t *= 2) concurrentSubmit(board, names, t);
+    }
+
+    // Every call raises the player's best, so each one moves an entry in the index.
+    private static boolean improve(Leaderboard board, String name, RandomSource rng) {
+        return board.submit(name, board.getScore(name) + 1 + rng.nextInt(8));
+    }
+
+    private static void concurrentSubmit(Leaderboard board, String[] names, int threads) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final RandomSource rng = new RandomSource(100 + t);
+            Thread worker = new Thread(() -> {
+                long n = 0;
+                while (running.get()) {
+                    improve(board, names[rng.nextInt(PLAYERS)], rng);
+                    n++;
+                }
+                ops.add(n);
+                done.countDown();
+            });
+            worker.start();
+        }
+        long start = System.nanoTime();
+        Thread.sleep(2000);
+        running.set(false);
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "leaderboard.submit x%-2d threads %14.0f ops/s",
+                threads, ops.sum() / seconds));
+    }
+}
@@ -0,0 +1,55 @@
+package service;
+
+import bench.Harness;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Profile store with 100k profiles: cold open plus first lookup, then steady-state
+// lookup and answer-recording costs.
+public class ProfileStoreBenchmark {
+    private static final int PROFILES = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        Harness harness = Harness.fromArgs(args);
+        Path dir = Files.createTempDirectory("profile-store-bench");
+        final String[] names = new String[PROFILES];
+        try (ProfileStore store = new ProfileStore(dir)) {
+            for (int i = 0; i < PROFILES; i++) {
+                names[i] = "player" + i;
+                store.recordGame(names[i], i % 12_500, i % 8 + 1);
+            }
+            store.touch(names[PROFILES / 2]);
+        }
+
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            try (ProfileStore store = new ProfileStore(dir)) {
+                String last = store.getLastPlayer();
+                ProfileStore.Profile profile = store.get(last);
+                long nanos = System.nanoTime() - start;
+                if (profile == null || profile.getGamesPlayed() != 1 || store.size() != PROFILES)
+                    throw new IllegalStateException("lookup failed for " + last);
+                System.out.println(String.format(Locale.ROOT, "open + last player + get (%d profiles): %.3f ms",
+                        PROFILES, nanos / 1e6));
+            }
+        }
+
+        System.out.println();
+        Harness.header();
+        final ProfileStore store = new ProfileStore(dir);
+        final RandomSource rng = new RandomSource(1);
+        harness.bench("profileStore.get", i -> store.get(names[rng.nextInt(PROFILES)]).getBestScore());
+        harness.bench("profileStore.recordAnswer", i -> {
+            try {
+                store.recordAnswer(names[rng.nextInt(PROFILES)], (i & 7) + 1, (i & 3) != 0);
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+            return i;
+        });
+        harness.finish();
+        store.close();
+    }
+}
@@ -0,0 +1,79 @@
+package service;
+
+import bench.Harness;
+import model.MathQuestion;
+import model.QuestionTemplate;
+
+public class QuestionGeneratorBenchmark {
+
+    private static final int[][] BANDS = {{1, 2}, {3, 4}, {5, 6}, {7, 8}};
+
+    private static final QuestionTemplate[] SAMPLE_TEMPLATES = {
+        QuestionTemplate.ADD, QuestionTemplate.DIVIDE, QuestionTemplate.PERCENT, QuestionTemplate.CIRCLE_AREA
+    };
+    private static final int[][] SAMPLE_OPERANDS = {{7, 5}, {84, 7}, {35, 120}, {12}};
+    private static final double[] SAMPLE_ANSWERS = {12, 12, 42, 452.16};
+
+    private static final double[] FORMAT_VALUES = {12, 452.16, 3.14159, 0.5, 17.333333333333332, -6};
+
+    public static void main(String[] args) throws Exception {
+        Harness harness = Harness.fromArgs(args);
+        Harness.header();
+        final RandomSource rng = new RandomSource(42);
+        final QuestionGenerator generator = new QuestionGenerator(42);
+
+        for (int b = 0; b < BANDS.length; b++) {
+            final int[] band = BANDS[b];
+            final String suffix = "level" + band[0] + "_" + band[1];
+            final QuestionTemplate template = SAMPLE_TEMPLATES[b];
+            final int[] operands = SAMPLE_OPERANDS[b];
+            final double answer = SAMPLE_ANSWERS[b];
+
+            harness.bench("generateQuestion." + suffix, i -> {
+                MathQuestion q = generator.generateQuestion(band[i & 1]);
+                return q.getOptionValues().length;
+            });
+            harness.bench("createQuestionWithOptions." + suffix, i -> {
+                MathQuestion q = QuestionGenerator.createQuestionWithOptions(template, operands, answer, 10, band[i & 1], rng);
+                return q.getOptionValues().length;
+            });
+            final DistractorStrategy strategy = DistractorStrategy.forTemplate(template);
+            final double[] options = {answer, 0, 0, 0};
+            harness.bench("distractors." + suffix, i -> {
+                strategy.fill(answer, options, rng);
+                return Double.doubleToRawLongBits(options[3]);
+            });
+        }
+
+        harness.bench("formatDecimalAnswer", i ->
+            QuestionGenerator.formatDecimalAnswer(FORMAT_VALUES[i % FORMAT_VALUES.length]).length());
+
+        for (int b = 0; b < BANDS.length; b++) {
+            final GameService service = new GameService("bench");
+            service.getPlayer().setLevel(BANDS[b][0]);
+            service.startNewQuestion();
+            harness.bench("checkAnswer.level" + BANDS[b][0] + "_" + BANDS[b][1], i -> {
+                service.getPlayer().setLives(3);
+                return service.checkAnswer(i & 3) ? 1 : 0;
+            });
+        }
+
+        final MathQuestion[] graded = new MathQuestion[1024];
+        final int[] selections = new int[graded.length];
+        for (int i = 0; i < graded.length; i++) {
+            graded[i] = QuestionGenerator.createQuestion(i % 8 + 1, rng);
+            selections[i] = rng.nextInt(4);
+        }
+        harness.bench("isCorrectOption.stream", i -> {
+            int k = i & (graded.length - 1);
+            return graded[k].isCorrectOption(selections[k]) ? 1 : 0;
+        });
+
+        final GameService parser = new GameService("bench");
+        final String[] symbolic = {"12", "452.16", "akar3/2", "\u221A2/2", "3/7", "akar3"};
+        harness.bench("parseSymbolicAnswer", i ->
+            Double.doubleToRawLongBits(parser.parseSymbolicAnswer(symbolic[i % symbolic.length])));
+
+        harness.finish();
+    }
+}
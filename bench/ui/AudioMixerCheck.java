@@ -0,0 +1,62 @@
+package ui;
+
+import java.lang.management.ManagementFactory;
+
+// Drives an AudioMixer without an output line: mixes overlapping sounds and compares
+// every period with a straight sum of the sources, checks the compiled mix loop
+// allocates nothing, and reports the cost of a 256-frame period with 8 busy voices.
+public class AudioMixerCheck {
+    public static void main(String[] args) throws Exception {
+        byte[][] sounds = new byte[SoundBank.Sound.values().length][];
+        for (SoundBank.Sound sound : SoundBank.Sound.values()) sounds[sound.ordinal()] = SoundBank.synthesize(sound);
+
+        int failures = checkMix(sounds[SoundBank.Sound.GOOD_JOB.ordinal()], sounds[SoundBank.Sound.LEVEL_UP.ordinal()])
+                     + checkMix(sounds[SoundBank.Sound.WRONG.ordinal()], sounds[SoundBank.Sound.SCREAM.ordinal()]);
+
+        AudioMixer mixer = new AudioMixer(null, 256, 4, 8);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long periods = 0, nanos = 0, allocated = 0;
+        for (int round = 0; round < 400; round++) {
+            for (int v = 0; v < 8; v++) mixer.play(sounds[SoundBank.Sound.SCREAM.ordinal()]);
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int p = 0; p < 100; p++) mixer.mixPeriod();
+            if (round >= 200) {
+                nanos += System.nanoTime() - start;
+                allocated += threads.getCurrentThreadAllocatedBytes() - bytes;
+                periods += 100;
+            }
+        }
+        System.out.printf("8 voices: %.0f ns per 256-frame period (%.1f ms of audio), %d bytes allocated%n",
+                          (double) nanos / periods, 256 * 1000 / AudioMixer.SAMPLE_RATE, allocated);
+        if (allocated > 0) failures++;
+
+        System.out.println(failures == 0 ? "OK" : failures + " failures");
+        if (failures > 0) System.exit(1);
+    }
+
+    // Starts b one and a half periods after a, then compares the mixed output.
+    private static int checkMix(byte[] a, byte[] b) throws Exception {
+        int frames = 256;
+        AudioMixer mixer = new AudioMixer(null, frames, 4, 8);
+        mixer.play(a);
+        int offset = 0, bStart = -1, mismatches = 0;
+        for (int p = 0; offset < Math.max(a.length, frames * 2 + b.length); p++, offset += frames) {
+            if (p == 2) {
+                mixer.play(b);
+                bStart = offset;
+            }
+            mixer.mixPeriod();
+            byte[] out = mixer.period();
+            for (int i = 0; i < frames; i++) {
+                int t = offset + i;
+                int expected = (t < a.length ? a[t] : 0) + (bStart >= 0 && t - bStart < b.length ? b[t - bStart] : 0);
+                expected = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, expected << 8));
+                int actual = (short) ((out[2 * i] & 0xFF) | (out[2 * i + 1] << 8));
+                if (actual != expected) mismatches++;
+            }
+        }
+        if (mismatches > 0) System.out.println(mismatches + " mismatched samples");
+        return mismatches > 0 ? 1 : 0;
+    }
+}
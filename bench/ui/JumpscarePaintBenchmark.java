@@ -0,0 +1,38 @@
+package ui;
+
+import bench.Harness;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+// Headless repaints of a JumpscarePanel into an 800x600 image: the first frame of each
+// jumpscare kind after startup (where fonts, glyphs and cached layers get built), then
+// the steady-state cost of an animation frame through the harness.
+public class JumpscarePaintBenchmark {
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        JumpscarePanel panel = new JumpscarePanel();
+        panel.setSize(800, 600);
+        BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        Typography.prewarm().join();
+
+        for (int lives = 2; lives >= 0; lives--) {
+            panel.triggerJumpscare(lives);
+            long start = System.nanoTime();
+            panel.paint(g);
+            System.out.printf("first frame, %d lives: %.2f ms%n", lives, (System.nanoTime() - start) / 1e6);
+        }
+        System.out.println();
+
+        Harness harness = Harness.fromArgs(args);
+        Harness.header();
+        harness.bench("jumpscare.paint", i -> {
+            if ((i & 1023) == 0) panel.triggerJumpscare(2);
+            panel.paint(g);
+            return image.getRGB(400, 300);
+        });
+        harness.finish();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,101 @@
+package ui;
+
+import model.MathQuestion;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+
+// The question card, answer buttons and stat values as GameGUI built and updated them
+// before QuizText and RoundedButton: HTML JLabels and JButtons, kept as the reference
+// for QuestionViewBenchmark.
+final class LegacyQuestionView implements QuestionViewBenchmark.View {
+    private final QuestionViewBenchmark.Root root = new QuestionViewBenchmark.Root();
+    private final JLabel[] stats = new JLabel[4];
+    private final JLabel questionLabel;
+    private final JButton[] optionButtons = new JButton[4];
+
+    LegacyQuestionView() {
+        JPanel statsPanel = new JPanel(new GridLayout(1, 4, 15, 0));
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new JLabel("<html><div style='text-align: center;'>0</div></html>");
+            stats[i].setFont(Typography.font(Typography.TEXT, Font.BOLD, 18));
+            stats[i].setHorizontalAlignment(SwingConstants.CENTER);
+            statsPanel.add(stats[i]);
+        }
+
+        JPanel questionCard = new JPanel(new BorderLayout());
+        questionCard.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
+        questionLabel = new JLabel("", JLabel.CENTER);
+        questionLabel.setFont(Typography.font(Typography.HEADING, Font.BOLD, 24));
+        questionCard.add(questionLabel, BorderLayout.CENTER);
+
+        JPanel optionsPanel = new JPanel(new GridLayout(2, 2, 20, 20));
+        optionsPanel.setBorder(new EmptyBorder(0, 40, 40, 40));
+        for (int i = 0; i < 4; i++) {
+            optionButtons[i] = new HtmlButton("");
+            optionButtons[i].setFont(Typography.font(Typography.HEADING, Font.BOLD, 20));
+            optionButtons[i].setBackground(Color.BLUE);
+            optionButtons[i].setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+            optionButtons[i].setHorizontalAlignment(SwingConstants.CENTER);
+            optionButtons[i].setVerticalAlignment(SwingConstants.CENTER);
+            optionsPanel.add(optionButtons[i]);
+        }
+
+        root.add(statsPanel, BorderLayout.NORTH);
+        root.add(questionCard, BorderLayout.CENTER);
+        root.add(optionsPanel, BorderLayout.SOUTH);
+    }
+
+    @Override
+    public QuestionViewBenchmark.Root root() {
+        return root;
+    }
+
+    @Override
+    public void show(String[] statValues, MathQuestion question) {
+        for (int i = 0; i < stats.length; i++) {
+            stats[i].setText("<html><div style='text-align: center;'>" + statValues[i] + "</div></html>");
+        }
+        questionLabel.setText("<html><div style='text-align: center; padding: 10px;'>" +
+            "<span style='color: #4ECDC4; font-size: 30px; font-weight: bold; line-height: 1.5;'>" +
+            question.getQuestion() +
+            "</span></div></html>");
+        String[] options = question.getOptions();
+        for (int i = 0; i < 4; i++) {
+            optionButtons[i].setText("<html><div style='text-align: center; padding: 15px;'>" +
+                "<span style='font-size: 20px; font-weight: bold;'>" +
+                options[i] +
+                "</span></div></html>");
+        }
+    }
+
+    private static final class HtmlButton extends JButton {
+        HtmlButton(String text) {
+            super(text);
+            setContentAreaFilled(false);
+            setFocusPainted(false);
+            setBorderPainted(false);
+            setHorizontalTextPosition(SwingConstants.CENTER);
+            setVerticalTextPosition(SwingConstants.CENTER);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(getBackground());
+            g2.fillRoundRect(0, 0, getWidth(), getHeight(), 25, 25);
+            super.paintComponent(g);
+            g2.dispose();
+        }
+
+        @Override
+        public void setText(String text) {
+            if (!text.startsWith("<html>")) {
+                text = "<html><div style='text-align: center;'>" + text + "</div></html>";
+            }
+            super.setText(text);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ui;
+
+// The per-sample Math.sin/exp/pow synthesis that SoundBank used before Synth, kept as
+// the reference for SynthBenchmark.
+final class LegacySounds {
+    private LegacySounds() {
+    }
+
+    static byte[] generateSuccessSound() {
+        final float SAMPLE_RATE = 44100f;
+        final int noteMs = 160;
+        final double vol = 0.25;
+        final int freq1 = 880;
+        final int freq2 = 1320;
+
+        int samplesPerNote = (int) (SAMPLE_RATE * noteMs / 1000);
+        byte[] buf = new byte[samplesPerNote * 2];
+
+        for (int n = 0; n < 2; n++) {
+            int freq = (n == 0) ? freq1 : freq2;
+            int base = n * samplesPerNote;
+            for (int i = 0; i < samplesPerNote; i++) {
+                double t = (double) i / SAMPLE_RATE;
+                double angle = 2.0 * Math.PI * freq * t;
+                double env = 1.0;
+                int attackSamples = (int) (SAMPLE_RATE * 0.01);
+                int decaySamples = attackSamples;
+                if (i < attackSamples) env = (double) i / attackSamples;
+                else if (i > samplesPerNote - decaySamples) env = (double) (samplesPerNote - i) / decaySamples;
+                double sample = Math.sin(angle) * vol * env;
+                buf[base + i] = (byte) (sample * 127.0);
+            }
+        }
+        return buf;
+    }
+
+    static byte[] generateLevelUpSound() {
+        final float SAMPLE_RATE = 44100f;
+        final int noteMs = 120;
+        final double vol = 0.25;
+        final int f1 = 660;
+        final int f2 = 880;
+
+        int samplesPerNote = (int) (SAMPLE_RATE * noteMs / 1000);
+        byte[] buf = new byte[samplesPerNote * 2];
+
+        for (int n = 0; n < 2; n++) {
+            int freq = (n == 0) ? f1 : f2;
+            int base = n * samplesPerNote;
+            for (int i = 0; i < samplesPerNote; i++) {
+                double t = (double) i / SAMPLE_RATE;
+                double angle = 2.0 * Math.PI * freq * t;
+                double env = 1.0;
+                int attack = (int) (SAMPLE_RATE * 0.01);
+                if (i < attack) env = (double) i / attack;
+                buf[base + i] = (byte) (Math.sin(angle) * 127.0 * vol * env);
+            }
+        }
+        return buf;
+    }
+
+    static byte[] generateGoodJobSound() {
+        final float SAMPLE_RATE = 44100f;
+        final int noteMs = 160;
+        final double vol = 0.45;
+        final int[] freqs = {880, 1108};
+
+        int samplesPerNote = (int) (SAMPLE_RATE * noteMs / 1000);
+        byte[] buf = new byte[samplesPerNote * freqs.length + 4000];
+
+        for (int n = 0; n < freqs.length; n++) {
+            int freq = freqs[n];
+            int base = n * samplesPerNote;
+            for (int i = 0; i < samplesPerNote; i++) {
+                double t = (double) i / SAMPLE_RATE;
+                double angle = 2.0 * Math.PI * freq * t;
+                double sample = Math.sin(angle) + 0.4 * Math.sin(2 * angle);
+                int attack = (int) (SAMPLE_RATE * 0.01);
+                int decay = (int) (SAMPLE_RATE * 0.06);
+                double env = 1.0;
+                if (i < attack) env = (double) i / attack;
+                else if (i > samplesPerNote - decay) env = (double) (samplesPerNote - i) / decay;
+                double s = sample * vol * env;
+                s = Math.max(-1.0, Math.min(1.0, s));
+                buf[base + i] = (byte) (s * 127.0);
+            }
+        }
+
+        int echoDelay = 1200;
+        double echoAtt = 0.45;
+        for (int i = 0; i + echoDelay < buf.length; i++) {
+            int src = i;
+            int dst = i + echoDelay;
+            if (dst < buf.length) {
+                int mixed = buf[dst] + (int) (buf[src] * echoAtt);
+                mixed = Math.max(-127, Math.min(127, mixed));
+                buf[dst] = (byte) mixed;
+            }
+        }
+        return buf;
+    }
+
+    static byte[] generateWrongSound() {
+        final float SAMPLE_RATE = 44100f;
+        final int ms = 260;
+        int len = (int) (SAMPLE_RATE * ms / 1000);
+        byte[] buf = new byte[len];
+        double baseFreq = 160;
+
+        for (int i = 0; i < len; i++) {
+            double t = (double) i / SAMPLE_RATE;
+            double sq = Math.signum(Math.sin(2.0 * Math.PI * baseFreq * t));
+            double bite = 0.4 * Math.sin(2.0 * Math.PI * baseFreq * 5.3 * t);
+            double env = Math.exp(-6.0 * t);
+            double noise = (Math.random() - 0.5) * 0.12;
+            double s = (sq * 0.9 + bite) * env + noise;
+            s = Math.max(-1.0, Math.min(1.0, s));
+            buf[i] = (byte) (s * 127.0);
+        }
+        return buf;
+    }
+
+    static byte[] generateGameOverScreamSound() {
+        final float SAMPLE_RATE = 44100f;
+        final int ms = 1100;
+        int len = (int) (SAMPLE_RATE * ms / 1000);
+        byte[] buf = new byte[len + 5000];
+
+        for (int i = 0; i < len; i++) {
+            double t = (double) i / SAMPLE_RATE;
+            double frac = (double) i / len;
+            double freq = 220 + 3000 * Math.pow(frac, 1.2);
+            double angle = 2.0 * Math.PI * freq * t;
+            double s = 0.7 * Math.sin(angle) + 0.3 * Math.sin(2 * angle) + 0.15 * Math.sin(3 * angle);
+            double noise = (Math.random() - 0.5) * (0.18 * Math.sin(Math.PI * frac));
+            double env;
+            if (frac < 0.15) env = frac / 0.15;
+            else env = 1.0 - Math.pow(frac, 2);
+            double sample = (s + noise) * env * 0.65;
+            sample = Math.max(-1.0, Math.min(1.0, sample));
+            buf[i] = (byte) (sample * 127.0);
+        }
+
+        int[] delays = {4000, 8000};
+        double[] atts = {0.45, 0.22};
+        for (int d = 0; d < delays.length; d++) {
+            int delay = delays[d];
+            double att = atts[d];
+            for (int i = 0; i + delay < buf.length; i++) {
+                int mixed = buf[i + delay] + (int) (buf[i] * att);
+                mixed = Math.max(-127, Math.min(127, mixed));
+                buf[i + delay] = (byte) mixed;
+            }
+        }
+        return buf;
+    }
+
+    static byte[] generateGameOverSound() {
+        final float SAMPLE_RATE = 44100f;
+        final int ms = 700;
+        byte[] buf = new byte[(int) (SAMPLE_RATE * ms / 1000)];
+        double freq = 110;
+        for (int i = 0; i < buf.length; i++) {
+            double t = (double) i / SAMPLE_RATE;
+            double angle = 2.0 * Math.PI * i * freq / SAMPLE_RATE;
+            double env = 1.0 - (double) i / buf.length;
+            buf[i] = (byte) (Math.sin(angle) * 127.0 * 0.35 * env);
+        }
+        return buf;
+    }
+}
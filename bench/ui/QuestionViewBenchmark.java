@@ -0,0 +1,146 @@
+package ui;
+
+import bench.Harness;
+import model.MathQuestion;
+import service.QuestionGenerator;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Headless version of what GameGUI.updateUI does to the screen for a new question: set
+// the four stat values, the question and the four options, then lay out and paint the
+// area. Runs the QuizText/RoundedButton view next to the HTML labels it replaced (kept
+// in LegacyQuestionView). Questions cycle through 4096 generated ones, more than the
+// TextBlock cache holds, so question text misses the cache as it does in a game.
+public class QuestionViewBenchmark {
+    private static final int WIDTH = 1370, HEIGHT = 640;
+    private static final int QUESTIONS = 4096;
+
+    interface View {
+        Root root();
+
+        void show(String[] statValues, MathQuestion question);
+    }
+
+    // Stands in for the frame: validate() does nothing without a native peer, so layout
+    // goes through validateTree(), which lays the whole area out as a frame does once
+    // setText() has invalidated its labels.
+    static final class Root extends JPanel {
+        Root() {
+            super(new BorderLayout());
+        }
+
+        void layoutTree() {
+            synchronized (getTreeLock()) {
+                validateTree();
+            }
+        }
+    }
+
+    // Built like GameGUI's header values, question card and options.
+    static final class TextView implements View {
+        private final Root root = new Root();
+        private final JLabel[] stats = new JLabel[4];
+        private final QuizText questionLabel;
+        private final JButton[] optionButtons = new JButton[4];
+
+        TextView() {
+            JPanel statsPanel = new JPanel(new GridLayout(1, 4, 15, 0));
+            for (int i = 0; i < stats.length; i++) {
+                stats[i] = new JLabel("0");
+                stats[i].setFont(Typography.font(Typography.TEXT, Font.BOLD, 18));
+                stats[i].setHorizontalAlignment(SwingConstants.CENTER);
+                statsPanel.add(stats[i]);
+            }
+
+            JPanel questionCard = new JPanel(new BorderLayout());
+            questionCard.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
+            questionLabel = new QuizText(Typography.font(Typography.HEADING, Font.BOLD, 39), new Color(78, 205, 196));
+            questionLabel.setBorder(new EmptyBorder(10, 10, 10, 10));
+            questionCard.add(questionLabel, BorderLayout.CENTER);
+
+            JPanel optionsPanel = new JPanel(new GridLayout(2, 2, 20, 20));
+            optionsPanel.setBorder(new EmptyBorder(0, 40, 40, 40));
+            for (int i = 0; i < 4; i++) {
+                optionButtons[i] = new RoundedButton("");
+                optionButtons[i].setFont(Typography.font(Typography.HEADING, Font.BOLD, 26));
+                optionButtons[i].setBackground(Color.BLUE);
+                optionButtons[i].setBorder(BorderFactory.createEmptyBorder(40, 35, 40, 35));
+                optionsPanel.add(optionButtons[i]);
+            }
+
+            root.add(statsPanel, BorderLayout.NORTH);
+            root.add(questionCard, BorderLayout.CENTER);
+            root.add(optionsPanel, BorderLayout.SOUTH);
+        }
+
+        @Override
+        public Root root() {
+            return root;
+        }
+
+        @Override
+        public void show(String[] statValues, MathQuestion question) {
+            for (int i = 0; i < stats.length; i++) stats[i].setText(statValues[i]);
+            questionLabel.setText(question.getQuestion());
+            String[] options = question.getOptions();
+            for (int i = 0; i < 4; i++) optionButtons[i].setText(options[i]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
+        QuestionGenerator generator = new QuestionGenerator(42);
+        MathQuestion[] questions = new MathQuestion[QUESTIONS];
+        String[][] stats = new String[QUESTIONS][];
+        for (int i = 0; i < QUESTIONS; i++) {
+            questions[i] = generator.generateQuestion(1 + i % 8);
+            stats[i] = new String[] {"Player", String.valueOf(i * 15), (1 + i % 8) + "/8", "❤❤❤".substring(0, 1 + i % 3)};
+        }
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+
+        View[] views = {new LegacyQuestionView(), new TextView()};
+        String[] names = {"html", "text"};
+        for (View view : views) {
+            view.root().setSize(WIDTH, HEIGHT);
+            view.root().layoutTree();
+        }
+        Typography.prewarm().join();
+
+        for (int v = 0; v < views.length; v++) {
+            long start = System.nanoTime();
+            update(views[v], stats[0], questions[0], g);
+            System.out.printf("first update, %s: %.2f ms%n", names[v], (System.nanoTime() - start) / 1e6);
+        }
+        System.out.println();
+
+        Harness harness = Harness.fromArgs(args);
+        Harness.header();
+        for (int v = 0; v < views.length; v++) {
+            View view = views[v];
+            harness.bench("updateUI." + names[v], i -> {
+                int q = i & (QUESTIONS - 1);
+                view.show(stats[q], questions[q]);
+                view.root().layoutTree();
+                return view.root().getComponent(1).getHeight();
+            });
+            harness.bench("updateUI+paint." + names[v], i -> {
+                int q = i & (QUESTIONS - 1);
+                update(view, stats[q], questions[q], g);
+                return image.getRGB(WIDTH / 2, HEIGHT / 2);
+            });
+        }
+        harness.finish();
+        System.exit(0);
+    }
+
+    private static void update(View view, String[] stats, MathQuestion question, Graphics2D g) {
+        view.show(stats, question);
+        view.root().layoutTree();
+        view.root().paint(g);
+    }
+}
@@ -0,0 +1,60 @@
+package ui;
+
+import bench.Harness;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// Wavetable synthesis of each sound effect against the original per-sample code in
+// LegacySounds, then a comparison of the two outputs: same length, same loudness, and
+// for the noise-free sounds the same samples to within a few 8-bit steps (the original
+// echo truncated every add to 8 bits).
+public class SynthBenchmark {
+    public static void main(String[] args) throws Exception {
+        Harness harness = Harness.fromArgs(args);
+        Harness.header();
+        for (SoundBank.Sound sound : SoundBank.Sound.values()) {
+            harness.bench("synth." + sound.getLabel(), i -> SoundBank.synthesize(sound).length);
+            Supplier<byte[]> legacy = legacy(sound);
+            harness.bench("legacy." + sound.getLabel(), i -> legacy.get().length);
+        }
+        harness.finish();
+
+        System.out.println();
+        int failures = 0;
+        for (SoundBank.Sound sound : SoundBank.Sound.values()) {
+            byte[] now = SoundBank.synthesize(sound);
+            byte[] before = legacy(sound).get();
+            boolean noisy = sound == SoundBank.Sound.WRONG || sound == SoundBank.Sound.SCREAM;
+            int maxDiff = 0;
+            for (int i = 0; i < Math.min(now.length, before.length); i++) {
+                maxDiff = Math.max(maxDiff, Math.abs(now[i] - before[i]));
+            }
+            double loudness = rms(now) / rms(before);
+            boolean ok = now.length == before.length && Math.abs(loudness - 1) < 0.1 && (noisy || maxDiff <= 4);
+            System.out.println(String.format(Locale.ROOT, "%-16s %6d samples  max diff %3d  rms ratio %.3f  %s",
+                    sound.getLabel(), now.length, maxDiff, loudness, ok ? "ok" : "MISMATCH"));
+            if (!ok) failures++;
+        }
+        if (failures > 0) System.exit(1);
+    }
+
+    private static Supplier<byte[]> legacy(SoundBank.Sound sound) {
+        switch (sound) {
+            case SUCCESS:   return LegacySounds::generateSuccessSound;
+            case LEVEL_UP:  return LegacySounds::generateLevelUpSound;
+            case GOOD_JOB:  return LegacySounds::generateGoodJobSound;
+            case WRONG:     return LegacySounds::generateWrongSound;
+            case SCREAM:    return LegacySounds::generateGameOverScreamSound;
+            case GAME_OVER: return LegacySounds::generateGameOverSound;
+            default:
+                throw new IllegalArgumentException("Unknown sound " + sound);
+        }
+    }
+
+    private static double rms(byte[] pcm) {
+        double sum = 0;
+        for (byte b : pcm) sum += b * b;
+        return Math.sqrt(sum / pcm.length);
+    }
+}
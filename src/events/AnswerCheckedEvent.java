@@ -0,0 +1,26 @@
+package events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("mathquiz.AnswerChecked")
+@Label("Answer Checked")
+@Category({"Math Quiz", "Answers"})
+@Description("An answer graded by GameService.checkAnswer")
+public class AnswerCheckedEvent extends Event {
+    @Label("Level")
+    public int level;
+
+    @Label("Correct")
+    public boolean correct;
+
+    @Label("Selected Option")
+    public int selectedOption;
+
+    @Label("Correct Option")
+    @Description("-1 when there was no current question")
+    public int correctOption;
+}
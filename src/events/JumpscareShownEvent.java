@@ -0,0 +1,17 @@
+package events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("mathquiz.JumpscareShown")
+@Label("Jumpscare Shown")
+@Category({"Math Quiz", "UI"})
+public class JumpscareShownEvent extends Event {
+    @Label("Remaining Lives")
+    public int remainingLives;
+
+    @Label("Message")
+    public String message;
+}
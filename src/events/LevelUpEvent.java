@@ -0,0 +1,20 @@
+package events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("mathquiz.LevelUp")
+@Label("Level Up")
+@Category({"Math Quiz", "Answers"})
+public class LevelUpEvent extends Event {
+    @Label("Player")
+    public String player;
+
+    @Label("New Level")
+    public int level;
+
+    @Label("Score")
+    public int score;
+}
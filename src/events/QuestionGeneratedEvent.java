@@ -0,0 +1,26 @@
+package events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("mathquiz.QuestionGenerated")
+@Label("Question Generated")
+@Category({"Math Quiz", "Questions"})
+@Description("A question drawn by QuestionGenerator.generateQuestion")
+public class QuestionGeneratedEvent extends Event {
+    @Label("Level")
+    public int level;
+
+    @Label("Template")
+    public String template;
+
+    @Label("Attempts")
+    @Description("Candidates drawn, including the ones rejected by the history window")
+    public int attempts;
+
+    @Label("Fallback")
+    public boolean fallback;
+}
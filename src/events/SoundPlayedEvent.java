@@ -0,0 +1,32 @@
+package events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("mathquiz.SoundPlayed")
+@Label("Sound Played")
+@Category({"Math Quiz", "UI"})
+@Description("A SoundBank sound handed to the AudioMixer queue; the event spans the enqueue")
+public class SoundPlayedEvent extends Event {
+    @Label("Sound")
+    public String sound;
+
+    @Label("Sample Size")
+    @Description("Bytes of PCM the mixer will play for this sound")
+    @DataAmount
+    public int bufferBytes;
+
+    @Label("Queued")
+    @Description("False when the mixer queue was full and the sound was dropped")
+    public boolean queued;
+
+    @Label("Synthesis Time")
+    @Description("Time the SoundBank loader spent synthesizing this sound")
+    @Timespan
+    public long synthesisNanos;
+}
@@ -0,0 +1,98 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded multi-producer, single-consumer queue of preallocated log entries. Each slot
+// carries a sequence number: a producer claims a position by CAS on the tail, fills the
+// entry and publishes it by advancing the slot's sequence; the drainer releases the slot
+// for the next lap the same way. A full ring drops the entry instead of waiting.
+final class LogRing {
+    static final class Entry {
+        LogSite site;
+        long timeMillis;
+        String thread;
+        String message;
+        String key;
+        long value;
+        String error;
+        long suppressed;
+    }
+
+    private final Entry[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long head;
+
+    LogRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity must be a power of two >= 2: " + capacity);
+        entries = new Entry[capacity];
+        sequences = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(LogSite site, long timeMillis, String message, String key, long value, String error,
+                  long suppressed) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (sequence < position) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        int index = (int) position & mask;
+        Entry entry = entries[index];
+        entry.site = site;
+        entry.timeMillis = timeMillis;
+        entry.thread = Thread.currentThread().getName();
+        entry.message = message;
+        entry.key = key;
+        entry.value = value;
+        entry.error = error;
+        entry.suppressed = suppressed;
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    // Drainer only: the next published entry, or null. Call release() when done with it.
+    Entry peek() {
+        int index = (int) head & mask;
+        return (sequences.getAcquire(index) == head + 1) ? entries[index] : null;
+    }
+
+    void release() {
+        int index = (int) head & mask;
+        Entry entry = entries[index];
+        entry.site = null;
+        entry.thread = null;
+        entry.message = null;
+        entry.key = null;
+        entry.error = null;
+        sequences.setRelease(index, head + entries.length);
+        head++;
+    }
+
+    // Positions claimed by producers and released by the drainer so far.
+    long claimed() {
+        return tail.get();
+    }
+
+    long released() {
+        return head;
+    }
+
+    long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+}
@@ -0,0 +1,60 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One logging call site, held in a static final field next to the code that logs.
+// Each site passes at most perSecond entries per wall-clock second; the rest are
+// counted and reported as "suppressed" on the next entry that gets through.
+public final class LogSite {
+    public static final int DEFAULT_PER_SECOND = 10;
+
+    private final String name;
+    private final QuizLog.Level level;
+    private final int perSecond;
+    private final AtomicInteger inWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+    private volatile long window;
+
+    public LogSite(String name, QuizLog.Level level) {
+        this(name, level, DEFAULT_PER_SECOND);
+    }
+
+    public LogSite(String name, QuizLog.Level level, int perSecond) {
+        if (perSecond <= 0) throw new IllegalArgumentException("perSecond must be positive: " + perSecond);
+        this.name = name;
+        this.level = level;
+        this.perSecond = perSecond;
+    }
+
+    public String getName() { return name; }
+    public QuizLog.Level getLevel() { return level; }
+
+    public void log(String message) {
+        publish(message, null, 0, null);
+    }
+
+    public void log(String message, String key, long value) {
+        publish(message, key, value, null);
+    }
+
+    public void log(String message, Throwable error) {
+        publish(message, null, 0, error);
+    }
+
+    private void publish(String message, String key, long value, Throwable error) {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+        if (second != window) {
+            // Racing resets may let a few extra entries through at the boundary; that is fine.
+            window = second;
+            inWindow.set(0);
+        }
+        if (inWindow.incrementAndGet() > perSecond) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        QuizLog.publish(this, now, message, key, value, (error != null) ? error.toString() : null,
+                       suppressed.getAndSet(0));
+    }
+}
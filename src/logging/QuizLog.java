@@ -0,0 +1,246 @@
+package logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Asynchronous JSON-lines log. Callers only copy their arguments into a LogRing slot;
+// the "quiz-log-drainer" thread formats entries, appends them to quiz.log and rolls the
+// file over at mathquiz.logging.maxBytes, keeping mathquiz.logging.files old copies
+// (quiz.log.1 is the newest). WARN and ERROR entries are echoed to stderr by the drainer
+// unless mathquiz.logging.console=false, so no game or server thread ever takes the
+// PrintStream lock. The drainer starts on first use and is flushed by a shutdown hook.
+public final class QuizLog {
+    public enum Level { INFO, WARN, ERROR }
+
+    private static final LogSite DROPPED = new LogSite("QuizLog.dropped", Level.WARN);
+    private static final LogSite FILE_ERROR = new LogSite("QuizLog.file", Level.ERROR);
+
+    private final LogRing ring;
+    private final Path file;
+    private final long maxBytes;
+    private final int keepFiles;
+    private final boolean console;
+    private final long flushNanos;
+    private final Thread drainer;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private Writer out;
+    private long written;
+    private volatile boolean closed;
+    private volatile long writtenThrough;
+
+    private static final class Holder {
+        static final QuizLog INSTANCE = new QuizLog(defaultFile(),
+                Integer.getInteger("mathquiz.logging.capacity", 4096),
+                Long.getLong("mathquiz.logging.maxBytes", 4L * 1024 * 1024),
+                Integer.getInteger("mathquiz.logging.files", 3),
+                !"false".equals(System.getProperty("mathquiz.logging.console")),
+                Long.getLong("mathquiz.logging.flushMillis", 100));
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "quiz-log-close"));
+        }
+    }
+
+    QuizLog(Path file, int capacity, long maxBytes, int keepFiles, boolean console, long flushMillis) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        if (keepFiles < 0) throw new IllegalArgumentException("files must not be negative: " + keepFiles);
+        if (flushMillis <= 0) throw new IllegalArgumentException("flushMillis must be positive: " + flushMillis);
+        this.ring = new LogRing(capacity);
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.keepFiles = keepFiles;
+        this.console = console;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+
+        drainer = new Thread(this::drainLoop, "quiz-log-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public static Path defaultFile() {
+        String configured = System.getProperty("mathquiz.logging.file");
+        if (configured != null) return Paths.get(configured);
+        return Paths.get(System.getProperty("mathquiz.log.dir",
+                         Paths.get(System.getProperty("user.home"), ".mathquiz").toString()), "quiz.log");
+    }
+
+    static void publish(LogSite site, long timeMillis, String message, String key, long value, String error,
+                        long suppressed) {
+        QuizLog log = Holder.INSTANCE;
+        if (log.closed) return;
+        if (log.ring.offer(site, timeMillis, message, key, value, error, suppressed)
+                && site.getLevel() == Level.ERROR) {
+            LockSupport.unpark(log.drainer);
+        }
+    }
+
+    // Blocks until everything published so far is written, or the timeout passes.
+    public static void flush(long timeoutMillis) {
+        QuizLog log = Holder.INSTANCE;
+        long target = log.ring.claimed();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (log.writtenThrough < target && !log.closed && System.nanoTime() < deadline) {
+            LockSupport.unpark(log.drainer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        openFile();
+        while (true) {
+            boolean stopping = closed;
+            long dropped = ring.takeDropped();
+            if (dropped > 0) DROPPED.log("Log ring full, entries dropped", "count", dropped);
+
+            boolean any = false;
+            for (LogRing.Entry entry = ring.peek(); entry != null; entry = ring.peek()) {
+                write(entry);
+                ring.release();
+                any = true;
+            }
+            if (any && out != null) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    fileFailed(e);
+                }
+            }
+            writtenThrough = ring.released();
+            if (stopping) break;
+            LockSupport.parkNanos(this, flushNanos);
+        }
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void write(LogRing.Entry entry) {
+        if (console && entry.site.getLevel() != Level.INFO) {
+            System.err.println("[" + entry.site.getName() + "] " + entry.message
+                               + ((entry.key != null) ? " " + entry.key + "=" + entry.value : "")
+                               + ((entry.error != null) ? ": " + entry.error : ""));
+        }
+        if (out == null) return;
+
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append("{\"time\":\"").append(Instant.ofEpochMilli(entry.timeMillis)).append('"');
+        sb.append(",\"level\":\"").append(entry.site.getLevel()).append('"');
+        appendField(sb, "site", entry.site.getName());
+        appendField(sb, "thread", entry.thread);
+        appendField(sb, "message", entry.message);
+        if (entry.key != null) {
+            sb.append(',');
+            appendString(sb, entry.key);
+            sb.append(':').append(entry.value);
+        }
+        if (entry.error != null) appendField(sb, "error", entry.error);
+        if (entry.suppressed > 0) sb.append(",\"suppressed\":").append(entry.suppressed);
+        sb.append("}\n");
+
+        try {
+            if (written + sb.length() > maxBytes && written > 0) roll();
+            out.append(sb);
+            written += sb.length();
+        } catch (IOException e) {
+            fileFailed(e);
+        }
+    }
+
+    private void openFile() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            out = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                    StandardCharsets.UTF_8));
+            written = Files.size(file);
+        } catch (IOException e) {
+            fileFailed(e);
+        }
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        out = null;
+        if (keepFiles == 0) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.deleteIfExists(rolled(keepFiles));
+            for (int i = keepFiles - 1; i >= 1; i--) {
+                if (Files.exists(rolled(i)))
+                    Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        openFile();
+    }
+
+    private Path rolled(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    // Keeps logging to the console only; the failure itself goes through the ring.
+    private void fileFailed(IOException e) {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+        }
+        out = null;
+        FILE_ERROR.log("Log file disabled: " + file, e);
+    }
+
+    private static void appendField(StringBuilder sb, String name, String value) {
+        sb.append(",\"").append(name).append("\":");
+        appendString(sb, value);
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
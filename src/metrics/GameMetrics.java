@@ -0,0 +1,134 @@
+package metrics;
+
+import logging.LogSite;
+import logging.QuizLog;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Process-wide latency histograms and counters for the game's hot paths, registered as
+// the JMX bean mathquiz:type=GameMetrics. Disable recording with -Dmathquiz.metrics=false.
+public class GameMetrics implements GameMetricsMBean {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("mathquiz.metrics", "true"));
+    public static final String OBJECT_NAME = "mathquiz:type=GameMetrics";
+    private static final int LEVELS = 8;
+    private static final LogSite REGISTER_FAILED = new LogSite("GameMetrics.register", QuizLog.Level.WARN);
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    private final LatencyHistogram[] generate = new LatencyHistogram[LEVELS];
+    private final LatencyHistogram checkAnswer = new LatencyHistogram("GameService.checkAnswer");
+    private final LatencyHistogram updateUi = new LatencyHistogram("GameGUI.updateUI");
+    private final LatencyHistogram dedupRetry = new LatencyHistogram("generateQuestion.dedupRetry");
+    private final LongAdder generationRetries = new LongAdder();
+    private final LongAdder generationFallbacks = new LongAdder();
+    private final LongAdder questionRetries = new LongAdder();
+    private final LongAdder questionFallbacks = new LongAdder();
+
+    private GameMetrics() {
+        for (int i = 0; i < LEVELS; i++) {
+            generate[i] = new LatencyHistogram("generateQuestion.level" + (i + 1));
+        }
+    }
+
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public synchronized void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(this, name);
+        } catch (JMException e) {
+            REGISTER_FAILED.log("Could not register MBean", e);
+        }
+    }
+
+    public void recordGenerate(int level, long startNanos) {
+        if (ENABLED && level >= 1 && level <= LEVELS) generate[level - 1].record(System.nanoTime() - startNanos);
+    }
+
+    // attempts is how many candidates the history rejected before one was accepted.
+    public void recordDedupRetries(int attempts, long startNanos) {
+        if (!ENABLED || attempts == 0) return;
+        generationRetries.add(attempts);
+        dedupRetry.record(System.nanoTime() - startNanos);
+    }
+
+    public void recordCheckAnswer(long startNanos) {
+        if (ENABLED) checkAnswer.record(System.nanoTime() - startNanos);
+    }
+
+    public void recordUpdateUi(long startNanos) {
+        if (ENABLED) updateUi.record(System.nanoTime() - startNanos);
+    }
+
+    public void countGenerationFallback() {
+        generationFallbacks.increment();
+    }
+
+    public void countQuestionRetry() {
+        questionRetries.increment();
+    }
+
+    public void countQuestionFallback() {
+        questionFallbacks.increment();
+    }
+
+    public LatencyHistogram getGenerateHistogram(int level) { return generate[level - 1]; }
+    public LatencyHistogram getCheckAnswerHistogram() { return checkAnswer; }
+    public LatencyHistogram getUpdateUiHistogram() { return updateUi; }
+    public LatencyHistogram getDedupRetryHistogram() { return dedupRetry; }
+
+    @Override public long getGenerationRetries() { return generationRetries.sum(); }
+    @Override public long getGenerationFallbacks() { return generationFallbacks.sum(); }
+    @Override public long getQuestionRetries() { return questionRetries.sum(); }
+    @Override public long getQuestionFallbacks() { return questionFallbacks.sum(); }
+
+    @Override public double[] getGenerateP50Micros() { return generatePercentiles(0.50); }
+    @Override public double[] getGenerateP99Micros() { return generatePercentiles(0.99); }
+    @Override public double[] getGenerateP999Micros() { return generatePercentiles(0.999); }
+    @Override public double getCheckAnswerP99Micros() { return checkAnswer.percentile(0.99) / 1e3; }
+    @Override public double getUpdateUiP99Micros() { return updateUi.percentile(0.99) / 1e3; }
+    @Override public double getDedupRetryP99Micros() { return dedupRetry.percentile(0.99) / 1e3; }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (LatencyHistogram h : generate) sb.append(h.summary()).append('\n');
+        sb.append(dedupRetry.summary()).append('\n');
+        sb.append(checkAnswer.summary()).append('\n');
+        sb.append(updateUi.summary()).append('\n');
+        sb.append("generation retries=").append(getGenerationRetries())
+          .append(" fallbacks=").append(getGenerationFallbacks())
+          .append(" | question retries=").append(getQuestionRetries())
+          .append(" fallbacks=").append(getQuestionFallbacks()).append('\n');
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram h : generate) h.reset();
+        checkAnswer.reset();
+        updateUi.reset();
+        dedupRetry.reset();
+        generationRetries.reset();
+        generationFallbacks.reset();
+        questionRetries.reset();
+        questionFallbacks.reset();
+    }
+
+    private double[] generatePercentiles(double q) {
+        double[] micros = new double[LEVELS];
+        for (int i = 0; i < LEVELS; i++) micros[i] = generate[i].percentile(q) / 1e3;
+        return micros;
+    }
+}
@@ -0,0 +1,18 @@
+package metrics;
+
+public interface GameMetricsMBean {
+    long getGenerationRetries();
+    long getGenerationFallbacks();
+    long getQuestionRetries();
+    long getQuestionFallbacks();
+
+    double[] getGenerateP50Micros();
+    double[] getGenerateP99Micros();
+    double[] getGenerateP999Micros();
+    double getCheckAnswerP99Micros();
+    double getUpdateUiP99Micros();
+    double getDedupRetryP99Micros();
+
+    String dump();
+    void reset();
+}
@@ -0,0 +1,90 @@
+package metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free log-linear histogram of nanosecond latencies, HDR style: values below
+// 2^SUB_BITS get exact buckets, larger ones 2^SUB_BITS linear sub-buckets per power of
+// two, so any recorded value is reported within ~1.6% of its true size.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        total.addAndGet(nanos);
+        long seen = max.get();
+        while (nanos > seen && !max.compareAndSet(seen, nanos)) seen = max.get();
+    }
+
+    // Summed on read so that record() stays at two atomic adds.
+    public long getCount() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+        return n;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return (n == 0) ? 0 : (double) total.get() / n;
+    }
+
+    // Upper bound of the bucket holding the q-th quantile, q in [0, 1].
+    public long percentile(double q) {
+        long n = getCount();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        max.set(0);
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT, "%-28s n=%-10d mean=%9.2fus p50=%9.2fus p99=%9.2fus p999=%9.2fus max=%9.2fus",
+                name, getCount(), getMean() / 1e3, percentile(0.50) / 1e3, percentile(0.99) / 1e3,
+                percentile(0.999) / 1e3, getMax() / 1e3);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_COUNT - 1));
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long sub = bucket & (SUB_COUNT - 1);
+        return ((SUB_COUNT + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,75 @@
+package model;
+
+import java.math.BigDecimal;
+
+public class AnswerFormat {
+    // Longest fast-path output: sign, 13 integer digits, comma, 2 decimals.
+    public static final int MAX_DECIMAL_CHARS = 17;
+
+    // Above this the cents no longer fit exactly in a double; those go through BigDecimal.
+    private static final double FAST_LIMIT = 1e13;
+
+    private static final ThreadLocal<char[]> BUFFER =
+            ThreadLocal.withInitial(() -> new char[MAX_DECIMAL_CHARS]);
+
+    public static String formatDecimal(double value) {
+        if (Double.isInfinite(value)) return "tak terhingga";
+        if (Double.isNaN(value))      return "undefined";
+        if (value == Math.floor(value) && !Double.isInfinite(value))
+            return String.valueOf((long) value);
+
+        char[] buffer = BUFFER.get();
+        int length = formatDecimal(value, buffer);
+        if (length >= 0) return new String(buffer, 0, length);
+
+        BigDecimal bd = BigDecimal.valueOf(value).stripTrailingZeros();
+        if (bd.scale() > 2) bd = bd.setScale(2, java.math.RoundingMode.DOWN);
+        return bd.toPlainString().replace('.', ',');
+    }
+
+    // Writes a finite, non-integer value with at most two decimals (truncated, comma
+    // separator) into buffer and returns the length, or -1 if the value needs the slow path.
+    public static int formatDecimal(double value, char[] buffer) {
+        double abs = Math.abs(value);
+        if (!(abs < FAST_LIMIT) || value == Math.floor(value)) return -1;
+
+        long cents = Math.round(abs * 100);
+        boolean exact = cents / 100.0 == abs;
+        if (!exact) {
+            cents = (long) Math.floor(abs * 100);
+            if ((cents + 1) / 100.0 < abs) cents++;
+            if (cents / 100.0 > abs) cents--;
+        }
+
+        int pos = 0;
+        if (value < 0 && cents != 0) buffer[pos++] = '-';
+        pos = appendLong(cents / 100, buffer, pos);
+        buffer[pos++] = ',';
+        int fraction = (int) (cents % 100);
+        buffer[pos++] = (char) ('0' + fraction / 10);
+        if (!exact || fraction % 10 != 0) buffer[pos++] = (char) ('0' + fraction % 10);
+        return pos;
+    }
+
+    private static int appendLong(long value, char[] buffer, int pos) {
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) digits++;
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    public static String formatTrig(double value) {
+        if (Math.abs(value - 0.5)                 < 0.001) return "1/2";
+        if (Math.abs(value - (Math.sqrt(2) / 2))  < 0.001) return "akar2/2";
+        if (Math.abs(value - (Math.sqrt(3) / 2))  < 0.001) return "akar3/2";
+        if (Math.abs(value - (Math.sqrt(3) / 3))  < 0.001) return "akar3/3";
+        if (Math.abs(value - Math.sqrt(3))         < 0.001) return "akar3";
+        if (Math.abs(value - 1.0)                  < 0.001) return "1";
+        if (Math.abs(value - 0.0)                  < 0.001) return "0";
+        return formatDecimal(value);
+    }
+}
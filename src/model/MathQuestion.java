@@ -1,18 +1,74 @@
 package model;
 
+// Text and option strings are rendered on first use and published through volatile
+// fields, so a question handed to another thread never exposes a half-filled array.
 public class MathQuestion extends Question {
-    private String[] options;
+    private final QuestionTemplate template;
+    private final int[] operands;
+    private final double[] optionValues;
+    private final int[] optionDenominators;
+    private final int correctIndex;
+    private volatile String text;
+    private volatile String[] options;
 
+    // Hand-built question with fixed text; option values are parsed from the option
+    // strings, NaN where an option is not a plain number.
     public MathQuestion(String question, double correctAnswer, int points,
                         QuestionDifficulty difficulty, String[] options) {
-        super(question, correctAnswer, points, difficulty);
-        this.options = options;
+        this(null, new int[0], correctAnswer, points, difficulty, parseOptions(options), null);
+        this.text = question;
+        this.options = options.clone();
+    }
+
+    public MathQuestion(QuestionTemplate template, int[] operands, double correctAnswer, int points,
+                        QuestionDifficulty difficulty, double[] optionValues, int[] optionDenominators) {
+        super(null, correctAnswer, points, difficulty);
+        this.template = template;
+        this.operands = operands;
+        this.optionValues = optionValues;
+        this.optionDenominators = optionDenominators;
+        this.correctIndex = indexOfCorrect();
+    }
+
+    private static double[] parseOptions(String[] options) {
+        double[] values = new double[options.length];
+        for (int i = 0; i < options.length; i++) {
+            try {
+                values[i] = Double.parseDouble(options[i].trim());
+            } catch (NumberFormatException e) {
+                values[i] = Double.NaN;
+            }
+        }
+        return values;
+    }
+
+    // Generators put the exact answer among the options; the tolerance scan only
+    // matters for hand-built questions.
+    private int indexOfCorrect() {
+        for (int i = 0; i < optionValues.length; i++) {
+            if (Double.compare(optionValues[i], correctAnswer) == 0) return i;
+        }
+        for (int i = 0; i < optionValues.length; i++) {
+            if (checkAnswer(optionValues[i])) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public String getQuestion() {
+        String rendered = text;
+        if (rendered == null) {
+            rendered = template.render(operands);
+            text = rendered;
+        }
+        return rendered;
     }
 
     @Override
     public String getQuestionText() {
+        String[] options = renderedOptions();
         StringBuilder sb = new StringBuilder();
-        sb.append(question).append("\n");
+        sb.append(getQuestion()).append("\n");
         for (int i = 0; i < options.length; i++) {
             sb.append((i + 1)).append(". ").append(options[i]).append("\n");
         }
@@ -40,5 +96,63 @@ public class MathQuestion extends Question {
         return Math.abs(answer - correctAnswer) < tolerance;
     }
 
-    public String[] getOptions() { return options; }
+    // A copy; callers may keep or modify it.
+    public String[] getOptions() {
+        return renderedOptions().clone();
+    }
+
+    private String[] renderedOptions() {
+        String[] rendered = options;
+        if (rendered == null) {
+            rendered = new String[optionValues.length];
+            for (int i = 0; i < rendered.length; i++) {
+                int denominator = (optionDenominators != null) ? optionDenominators[i] : 1;
+                rendered[i] = template.formatOption(optionValues[i], denominator);
+            }
+            options = rendered;
+        }
+        return rendered;
+    }
+
+    public boolean isCorrectOption(int index) {
+        return index == correctIndex;
+    }
+
+    public int getCorrectIndex() { return correctIndex; }
+    public int getOptionCount() { return optionValues.length; }
+    public QuestionTemplate getTemplate() { return template; }
+    public int[] getOperands() { return operands; }
+    public double[] getOptionValues() { return optionValues; }
+    public int[] getOptionDenominators() { return optionDenominators; }
+
+    public long fingerprint() {
+        return mix((template != null) ? seed(template) : getQuestion().hashCode(), operands);
+    }
+
+    // What fingerprint() returns for a question built from template and operands a, b,
+    // without building it.
+    public static long fingerprint(QuestionTemplate template, int a, int b) {
+        return finish(step(step(seed(template), a), b));
+    }
+
+    private static long seed(QuestionTemplate template) {
+        return 0x9E3779B97F4A7C15L * (template.ordinal() + 1);
+    }
+
+    private static long mix(long h, int[] operands) {
+        for (int operand : operands) h = step(h, operand);
+        return finish(h);
+    }
+
+    private static long step(long h, int operand) {
+        h = (h ^ operand) * 0xff51afd7ed558ccdL;
+        return h ^ (h >>> 32);
+    }
+
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
 }
@@ -98,4 +98,12 @@ public class Player {
     public double getProgressPercentage() {
         return levelProgress.getProgressPercentage();
     }
+    
+    public void restore(int score, int level, int lives, int questionsAnswered, int questionsInCurrentLevel) {
+        this.score = score;
+        this.level = level;
+        this.lives = lives;
+        this.questionsAnswered = questionsAnswered;
+        this.levelProgress.questionsInCurrentLevel = questionsInCurrentLevel;
+    }
 }
\ No newline at end of file
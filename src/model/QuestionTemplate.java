@@ -0,0 +1,90 @@
+package model;
+
+public enum QuestionTemplate {
+    ADD {
+        public String render(int[] o) { return o[0] + " + " + o[1] + " = ?"; }
+    },
+    SUBTRACT {
+        public String render(int[] o) { return o[0] + " - " + o[1] + " = ?"; }
+    },
+    MULTIPLY {
+        public String render(int[] o) { return o[0] + " x " + o[1] + " = ?"; }
+    },
+    DIVIDE {
+        public String render(int[] o) { return o[0] + " / " + o[1] + " = ?"; }
+    },
+    MULTIPLY3 {
+        public String render(int[] o) { return o[0] + " x " + o[1] + " x " + o[2] + " = ?"; }
+    },
+    MULTIPLY_DIVIDE {
+        public String render(int[] o) { return "(" + o[0] + " x " + o[1] + ") / " + o[2] + " = ?"; }
+    },
+    PERCENT {
+        public String render(int[] o) { return "Berapa " + o[0] + "% dari " + o[1] + "?"; }
+    },
+    SUBSTITUTION {
+        public String render(int[] o) { return "Jika x = " + o[0] + ", maka 2x + " + o[1] + " = ?"; }
+    },
+    SQUARE_ROOT {
+        public String render(int[] o) { return "Akar dari " + (o[0] * o[0]) + " = ?"; }
+    },
+    FRACTION_OF {
+        public String render(int[] o) { return o[0] + " x " + o[1] + "/" + o[2] + " = ?"; }
+    },
+    AVERAGE {
+        public String render(int[] o) { return "Rata-rata dari " + o[0] + ", " + o[1] + ", " + o[2] + " = ?"; }
+    },
+    NEGATIVE_SUBTRACT {
+        public String render(int[] o) { return o[0] + " - " + (o[0] + o[1]) + " = ?"; }
+    },
+    NEGATIVE_ADD {
+        public String render(int[] o) { return "-" + o[0] + " + " + o[1] + " = ?"; }
+    },
+    DISCRIMINANT {
+        public String render(int[] o) { return "x^2 + " + o[0] + "x + " + o[1] + " = 0, berapa hasil diskriminannya?"; }
+    },
+    CIRCLE_AREA {
+        public String render(int[] o) { return "Luas lingkaran jari-jari " + o[0] + "? (pi=3.14)"; }
+    },
+    BOX_VOLUME {
+        public String render(int[] o) { return "Volume balok " + o[0] + "x" + o[1] + "x" + o[2] + " = ?"; }
+    },
+    TRIGONOMETRY {
+        public String render(int[] o) { return TRIG_FUNCTIONS[o[0]] + " " + o[1] + " = ?"; }
+
+        public String formatOption(double value, int denominator) { return AnswerFormat.formatTrig(value); }
+    },
+    LOGARITHM {
+        public String render(int[] o) { return "log " + POWERS_OF_TEN[o[0]] + " = ?"; }
+    },
+    LINEAR_SYSTEM {
+        public String render(int[] o) {
+            return "Jika 2x + 3y = " + (o[0] * 2 + o[1] * 3) + " dan x = " + o[0] + ", maka y = ?";
+        }
+    },
+    PROBABILITY {
+        public String render(int[] o) { return "Peluang munculnya " + o[0] + " dari " + o[1] + " kemungkinan = ?"; }
+
+        public String formatOption(double value, int denominator) {
+            return Math.round(value * denominator) + "/" + denominator;
+        }
+    },
+    MIXED {
+        public String render(int[] o) { return "(" + o[0] + "^2 - " + o[1] + ") / " + o[2] + " + " + o[3] + " = ?"; }
+    };
+
+    public static final String[] TRIG_FUNCTIONS = {"sin", "cos", "tan"};
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+
+    private static final QuestionTemplate[] VALUES = values();
+
+    public abstract String render(int[] operands);
+
+    public String formatOption(double value, int denominator) {
+        return AnswerFormat.formatDecimal(value);
+    }
+
+    public static QuestionTemplate byId(int id) {
+        return VALUES[id];
+    }
+}
@@ -0,0 +1,363 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import metrics.GameMetrics;
+import model.MathQuestion;
+import model.Player;
+import service.AnswerOutcome;
+import service.GameService;
+import service.Leaderboard;
+import service.QuestionGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// HTTP/JSON front end hosting many independent GameService sessions in one JVM.
+// Each session owns its own generator, so per-request work does not depend on how
+// many sessions are active; the session map is the only shared structure. The
+// leaderboard is keyed by session id, so players sharing a name keep separate entries,
+// and only holds live sessions: an evicted session takes its entry with it.
+//
+//   POST /session?name=Ana             -> {"session":"...", status}
+//   GET  /question?session=ID          -> {"level":..,"question":"..","options":[..]}
+//   POST /answer?session=ID&option=N   -> {"outcome":"CORRECT", status}
+//   GET  /status?session=ID            -> status
+//   GET  /leaderboard?k=10             -> {"players":..,"top":[{"name":..,"score":..}]}
+//   GET  /metrics                      -> GameMetrics dump, text/plain
+public class QuizServer {
+    private static final long IDLE_MILLIS =
+            TimeUnit.MINUTES.toMillis(Long.getLong("mathquiz.server.idleMinutes", 30));
+
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService sweeper;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    private static class Session {
+        final String id;
+        final GameService game;
+        volatile long lastAccess;
+        boolean evicted;   // guarded by game
+
+        Session(String id, GameService game) {
+            this.id = id;
+            this.game = game;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    public QuizServer(InetSocketAddress address) throws IOException {
+        http = HttpServer.create(address, 1024);
+        executor = newRequestExecutor();
+        http.setExecutor(executor);
+        http.createContext("/session", handler("POST", this::startSession));
+        http.createContext("/question", handler("GET", this::question));
+        http.createContext("/answer", handler("POST", this::answer));
+        http.createContext("/status", handler("GET", this::status));
+        http.createContext("/leaderboard", handler("GET", this::leaderboard));
+        http.createContext("/metrics", exchange -> {
+            try {
+                byte[] bytes = GameMetrics.get().dump().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "quiz-session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, IDLE_MILLIS / 4);
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public static void main(String[] args) throws IOException {
+        enableNoDelay();
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 8080;
+        QuizServer server = new QuizServer(new InetSocketAddress(port));
+        GameMetrics.get().register();
+        server.start();
+        System.out.println("Quiz server listening on port " + server.getPort());
+    }
+
+    // Without TCP_NODELAY small JSON responses sit behind Nagle/delayed-ACK for ~40 ms.
+    // The JDK server reads the JVM-wide property once, so call this before the first
+    // HttpServer is created; an explicit -Dsun.net.httpserver.nodelay wins.
+    public static void enableNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    // One virtual thread per request when the runtime has them (Java 21+), otherwise
+    // a cached platform pool.
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "quiz-request");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    public void stop() {
+        http.stop(0);
+        executor.shutdownNow();
+        sweeper.shutdownNow();
+        sessions.clear();
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    private String startSession(Map<String, String> params) {
+        String name = params.getOrDefault("name", "Player");
+        GameService game = new GameService(name, new QuestionGenerator());
+        game.startNewQuestion();
+
+        String id = UUID.randomUUID().toString();
+        Session session = new Session(id, game);
+        leaderboard.submit(id, name, 0);
+        sessions.put(id, session);
+        StringBuilder json = new StringBuilder("{\"session\":");
+        appendString(json, id).append(',');
+        appendStatus(json, session);
+        return json.append('}').toString();
+    }
+
+    private String question(Map<String, String> params) {
+        GameService game = session(params).game;
+        StringBuilder json = new StringBuilder("{");
+        synchronized (game) {
+            MathQuestion question = game.getCurrentQuestion();
+            json.append("\"level\":").append(game.getPlayer().getLevel()).append(',');
+            if (question == null) {
+                return json.append("\"question\":null,\"options\":[]}").toString();
+            }
+            json.append("\"points\":").append(question.getPoints()).append(",\"question\":");
+            appendString(json, question.getQuestion()).append(",\"options\":[");
+            String[] options = question.getOptions();
+            for (int i = 0; i < options.length; i++) {
+                if (i > 0) json.append(',');
+                appendString(json, options[i]);
+            }
+        }
+        return json.append("]}").toString();
+    }
+
+    private String answer(Map<String, String> params) {
+        Session session = session(params);
+        GameService game = session.game;
+        int option;
+        try {
+            option = Integer.parseInt(params.get("option"));
+        } catch (NumberFormatException e) {
+            throw new BadRequest(400, "option must be an integer");
+        }
+
+        StringBuilder json = new StringBuilder("{\"outcome\":");
+        synchronized (game) {
+            if (game.isGameOver() || game.isQuizComplete())
+                throw new BadRequest(409, "game is already finished");
+            MathQuestion question = game.getCurrentQuestion();
+            if (question == null) throw new BadRequest(409, "no question to answer");
+            if (option < 0 || option >= question.getOptionCount())
+                throw new BadRequest(400, "option must be between 0 and " + (question.getOptionCount() - 1));
+            AnswerOutcome outcome = game.submitAnswer(option);
+            Player player = game.getPlayer();
+            if (outcome.isCorrect() && !session.evicted)
+                leaderboard.submit(session.id, player.getName(), player.getScore());
+            appendString(json, outcome.name()).append(',');
+            appendStatus(json, session);
+        }
+        return json.append('}').toString();
+    }
+
+    private String leaderboard(Map<String, String> params) {
+        int k;
+        try {
+            k = Integer.parseInt(params.getOrDefault("k", "10"));
+        } catch (NumberFormatException e) {
+            throw new BadRequest(400, "k must be an integer");
+        }
+        if (k < 0 || k > 1000) throw new BadRequest(400, "k must be between 0 and 1000");
+
+        List<Leaderboard.Entry> top = leaderboard.top(k);
+        StringBuilder json = new StringBuilder("{\"players\":").append(leaderboard.size()).append(",\"top\":[");
+        for (int i = 0; i < top.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"name\":");
+            appendString(json, top.get(i).getName()).append(",\"score\":").append(top.get(i).getScore()).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private String status(Map<String, String> params) {
+        Session session = session(params);
+        StringBuilder json = new StringBuilder("{");
+        synchronized (session.game) {
+            appendStatus(json, session);
+        }
+        return json.append('}').toString();
+    }
+
+    private Session session(Map<String, String> params) {
+        String id = params.get("session");
+        Session session = (id != null) ? sessions.get(id) : null;
+        if (session == null) throw new BadRequest(404, "unknown session");
+        session.lastAccess = System.currentTimeMillis();
+        return session;
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_MILLIS;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            Session session = it.next();
+            if (session.lastAccess >= cutoff) continue;
+            it.remove();
+            // Under the game lock, so an answer already past the session lookup cannot
+            // put the entry back after it is removed.
+            synchronized (session.game) {
+                session.evicted = true;
+                leaderboard.remove(session.id);
+            }
+        }
+    }
+
+    private void appendStatus(StringBuilder json, Session session) {
+        GameService game = session.game;
+        Player player = game.getPlayer();
+        json.append("\"name\":");
+        appendString(json, player.getName());
+        json.append(",\"score\":").append(player.getScore())
+            .append(",\"level\":").append(player.getLevel())
+            .append(",\"lives\":").append(player.getLives())
+            .append(",\"answered\":").append(player.getQuestionsAnswered())
+            .append(",\"progress\":").append(player.getLevelProgress().getQuestionsInCurrentLevel())
+            .append(",\"gameOver\":").append(game.isGameOver())
+            .append(",\"complete\":").append(game.isQuizComplete())
+            .append(",\"rank\":").append(leaderboard.rank(session.id));
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n");  break;
+                case '\r': json.append("\\r");  break;
+                case '\t': json.append("\\t");  break;
+                default:
+                    if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                    else json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    private interface Endpoint {
+        String handle(Map<String, String> params);
+    }
+
+    private static class BadRequest extends RuntimeException {
+        final int status;
+
+        BadRequest(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static HttpHandler handler(String method, Endpoint endpoint) {
+        return exchange -> {
+            try {
+                int status = 200;
+                String body;
+                if (!method.equals(exchange.getRequestMethod())) {
+                    status = 405;
+                    body = error("use " + method);
+                } else {
+                    try {
+                        body = endpoint.handle(parseQuery(exchange));
+                    } catch (BadRequest e) {
+                        status = e.status;
+                        body = error(e.getMessage());
+                    } catch (RuntimeException e) {
+                        status = 500;
+                        body = error("internal error");
+                    }
+                }
+                send(exchange, status, body);
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private static String error(String message) {
+        return appendString(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                       URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package service;
+
+import logging.LogSite;
+import logging.QuizLog;
+import model.Player;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Write-ahead log of the current session's progress. Each answer appends one 8-byte
+// record to a memory-mapped segment; a background thread forces dirty pages every
+// commit interval, so neither appending nor compaction waits on the disk.
+//
+// Two segments alternate by generation (session-0.wal / session-1.wal), and each one
+// starts with a header holding the player's state when it began, so it replays on its
+// own. Compaction switches appends to the other segment under the lock, writing the
+// state at the switch into its header. Recovery replays the newest segment whose header
+// checks out. A segment is reused only after the headers written since have been
+// forced, so the older one is always on disk to fall back to; a segment that fills up
+// before then stops taking records, and its answers are carried by the next header.
+public class AnswerLog implements GameEventListener, AutoCloseable {
+    private static final LogSite SEGMENT_FULL = new LogSite("AnswerLog.segmentFull", QuizLog.Level.WARN);
+
+    private static final int SEGMENT_MAGIC  = 0x4D515732;
+    private static final int HEADER_BYTES   = 256;
+    private static final int RECORD_BYTES   = 8;
+    private static final int SEGMENT_BYTES  = 64 * 1024;
+    private static final int CAPACITY       = (SEGMENT_BYTES - HEADER_BYTES) / RECORD_BYTES;
+
+    // Header layout: magic, check, generation, five player ints, finished, name length, name.
+    private static final int CHECK_OFFSET      = 4;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int PLAYER_OFFSET     = 16;
+    private static final int FINISHED_OFFSET   = 36;
+    private static final int NAME_LENGTH_OFFSET = 38;
+    private static final int NAME_OFFSET       = 40;
+    private static final int NAME_BYTES        = HEADER_BYTES - NAME_OFFSET;
+
+    private static final int CORRECT   = 1;
+    private static final int LIFE_LOST = 2;
+    private static final int LEVEL_UP  = 3;
+    private static final int END       = 4;
+
+    private final FileChannel[] channels = new FileChannel[2];
+    private final MappedByteBuffer[] segments = new MappedByteBuffer[2];
+    private final long commitNanos;
+    private final int compactThreshold;
+    private final Thread flusher;
+
+    private Player state;
+    private boolean finished;
+    private long generation;
+    private int count;
+    // Headers written so far, and how many of them the flusher has forced.
+    private long headers;
+    private long forcedHeaders;
+    private volatile boolean dirty;
+    private volatile boolean closed;
+    private final Player recovered;
+
+    public AnswerLog(Path directory) throws IOException {
+        this(directory, Long.getLong("mathquiz.log.commitMillis", 50),
+             Integer.getInteger("mathquiz.log.compactRecords", 1024));
+    }
+
+    public AnswerLog(Path directory, long commitMillis, int compactThreshold) throws IOException {
+        if (commitMillis <= 0) throw new IllegalArgumentException("commitMillis must be positive: " + commitMillis);
+        if (compactThreshold <= 0 || compactThreshold > CAPACITY)
+            throw new IllegalArgumentException("compactThreshold must be in [1, " + CAPACITY + "]: " + compactThreshold);
+        this.commitNanos = TimeUnit.MILLISECONDS.toNanos(commitMillis);
+        this.compactThreshold = compactThreshold;
+
+        Files.createDirectories(directory);
+        for (int i = 0; i < 2; i++) {
+            channels[i] = FileChannel.open(directory.resolve("session-" + i + ".wal"), StandardOpenOption.CREATE,
+                                           StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segments[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+        }
+        recovered = recover();
+
+        flusher = new Thread(this::flushLoop, "answer-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("mathquiz.log.dir",
+                         Paths.get(System.getProperty("user.home"), ".mathquiz").toString()));
+    }
+
+    // The unfinished session found at open, or null if there was none.
+    public Player getRecovered() {
+        return recovered;
+    }
+
+    // Starts a segment for the new session. If the current one is not on disk yet it is
+    // restarted in place instead; the older segment then still holds the last session.
+    public void startSession(Player player) {
+        synchronized (this) {
+            state = copyOf(player);
+            finished = false;
+            if (!switchSegment()) {
+                startSegment(generation);
+                count = 0;
+            }
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void onAnswer(Player player, AnswerOutcome outcome, int points) {
+        if (outcome.isCorrect()) {
+            append(CORRECT, points);
+            if (outcome == AnswerOutcome.LEVEL_UP) append(LEVEL_UP, player.getLevel());
+        } else {
+            append(LIFE_LOST, 0);
+        }
+        if (outcome.isFinal()) append(END, 0);
+    }
+
+    private void append(int type, int value) {
+        boolean skipped = false;
+        boolean due;
+        synchronized (this) {
+            if (closed || state == null) return;
+            if (count >= CAPACITY && !switchSegment()) {
+                skipped = true;
+            } else {
+                MappedByteBuffer segment = segments[(int) (generation & 1)];
+                segment.putLong(HEADER_BYTES + count * RECORD_BYTES, encode(type, value, generation));
+                count++;
+            }
+            apply(state, type, value);
+            if (type == END) finished = true;
+            due = count == compactThreshold;
+        }
+        dirty = true;
+        if (skipped) SEGMENT_FULL.log("Segment full before the last switch reached the disk; answer kept in memory");
+        if (due || skipped) LockSupport.unpark(flusher);
+    }
+
+    // Switches to the other segment now. Returns false, leaving the log as it was, while
+    // a header written since the last flush has not reached the disk.
+    public synchronized boolean compact() {
+        return switchSegment();
+    }
+
+    // Caller holds the lock. Only touches mapped memory.
+    private boolean switchSegment() {
+        if (state == null || forcedHeaders != headers) return false;
+        generation++;
+        startSegment(generation);
+        count = 0;
+        return true;
+    }
+
+    private void startSegment(long generation) {
+        MappedByteBuffer segment = segments[(int) (generation & 1)];
+        for (int i = HEADER_BYTES; i < SEGMENT_BYTES; i += RECORD_BYTES) segment.putLong(i, 0);
+        byte[] name = truncatedUtf8(state.getName(), NAME_BYTES);
+        segment.putLong(GENERATION_OFFSET, generation);
+        segment.putInt(PLAYER_OFFSET, state.getScore());
+        segment.putInt(PLAYER_OFFSET + 4, state.getLevel());
+        segment.putInt(PLAYER_OFFSET + 8, state.getLives());
+        segment.putInt(PLAYER_OFFSET + 12, state.getQuestionsAnswered());
+        segment.putInt(PLAYER_OFFSET + 16, state.getLevelProgress().getQuestionsInCurrentLevel());
+        segment.put(FINISHED_OFFSET, (byte) (finished ? 1 : 0));
+        segment.putShort(NAME_LENGTH_OFFSET, (short) name.length);
+        segment.put(NAME_OFFSET, name);
+        segment.putInt(CHECK_OFFSET, headerCheck(segment));
+        segment.putInt(0, SEGMENT_MAGIC);
+        headers++;
+        dirty = true;
+    }
+
+    public synchronized int getPendingRecords() {
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (int i = 0; i < 2; i++) {
+                segments[i].force();
+                try {
+                    channels[i].close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(this, commitNanos);
+            if (dirty) {
+                dirty = false;
+                long written;
+                synchronized (this) {
+                    written = headers;
+                }
+                segments[0].force();
+                segments[1].force();
+                synchronized (this) {
+                    forcedHeaders = written;
+                }
+            }
+            synchronized (this) {
+                if (!closed && count >= compactThreshold) switchSegment();
+            }
+        }
+    }
+
+    private Player recover() {
+        int newest = -1;
+        for (int i = 0; i < 2; i++) {
+            MappedByteBuffer segment = segments[i];
+            if (segment.getInt(0) != SEGMENT_MAGIC || segment.getInt(CHECK_OFFSET) != headerCheck(segment)) continue;
+            if ((segment.getLong(GENERATION_OFFSET) & 1) != i) continue;
+            int nameLength = segment.getShort(NAME_LENGTH_OFFSET);
+            if (nameLength < 0 || nameLength > NAME_BYTES) continue;
+            if (newest < 0 || segment.getLong(GENERATION_OFFSET) > segments[newest].getLong(GENERATION_OFFSET)) newest = i;
+        }
+        if (newest < 0) return null;
+
+        MappedByteBuffer segment = segments[newest];
+        byte[] name = new byte[segment.getShort(NAME_LENGTH_OFFSET)];
+        segment.get(NAME_OFFSET, name);
+        Player player = new Player(new String(name, StandardCharsets.UTF_8));
+        player.restore(segment.getInt(PLAYER_OFFSET), segment.getInt(PLAYER_OFFSET + 4), segment.getInt(PLAYER_OFFSET + 8),
+                       segment.getInt(PLAYER_OFFSET + 12), segment.getInt(PLAYER_OFFSET + 16));
+        boolean ended = segment.get(FINISHED_OFFSET) != 0;
+        long segmentGeneration = segment.getLong(GENERATION_OFFSET);
+        int n = 0;
+        for (; n < CAPACITY; n++) {
+            long record = segment.getLong(HEADER_BYTES + n * RECORD_BYTES);
+            if (!valid(record, segmentGeneration)) break;
+            int type = type(record);
+            apply(player, type, value(record));
+            if (type == END) ended = true;
+        }
+
+        synchronized (this) {
+            state = player;
+            finished = ended;
+            generation = segmentGeneration;
+            count = n;
+        }
+        return ended ? null : copyOf(player);
+    }
+
+    // Over the header from the generation to the end of the name; never zero.
+    private static int headerCheck(MappedByteBuffer segment) {
+        int length = Math.min(Math.max(segment.getShort(NAME_LENGTH_OFFSET), 0), NAME_BYTES);
+        int h = 0x811C9DC5;
+        for (int i = GENERATION_OFFSET; i < NAME_OFFSET + length; i++) h = (h ^ segment.get(i)) * 0x01000193;
+        return h | 1;
+    }
+
+    // UTF-8 bytes of name, cut at a code point boundary to fit max bytes.
+    private static byte[] truncatedUtf8(String name, int max) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= max) return bytes;
+        int end = max;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) end--;
+        return Arrays.copyOf(bytes, end);
+    }
+
+    private static void apply(Player player, int type, int value) {
+        switch (type) {
+            case CORRECT:
+                player.addScore(value);
+                player.incrementQuestionsAnswered();
+                break;
+            case LIFE_LOST:
+                player.loseLife();
+                break;
+            case LEVEL_UP:
+                player.setLevel(value);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Player copyOf(Player player) {
+        Player copy = new Player(player.getName());
+        copy.restore(player.getScore(), player.getLevel(), player.getLives(), player.getQuestionsAnswered(),
+                     player.getLevelProgress().getQuestionsInCurrentLevel());
+        return copy;
+    }
+
+    // Record layout: type (8 bits) | check (8 bits) | generation (low 16 bits) | value (32 bits).
+    // An all-zero long marks the end of the segment. The check covers the full generation,
+    // so a torn record, or one left by an earlier generation of the same segment whose page
+    // reached the disk after the new header, fails it.
+    private static long encode(int type, int value, long generation) {
+        return ((long) type << 56) | ((long) check(type, value, generation) << 48)
+             | ((generation & 0xFFFF) << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    private static boolean valid(long record, long generation) {
+        int type = type(record);
+        return type >= CORRECT && type <= END
+            && ((record >>> 32) & 0xFFFF) == (generation & 0xFFFF)
+            && ((record >>> 48) & 0xFF) == check(type, value(record), generation);
+    }
+
+    private static int type(long record)  { return (int) (record >>> 56); }
+    private static int value(long record) { return (int) record; }
+
+    private static int check(int type, int value, long generation) {
+        int h = (type * 0x9E3779B1) ^ (value * 0x85EBCA6B) ^ ((int) (generation ^ (generation >>> 32)) * 0xC2B2AE35);
+        h ^= h >>> 16;
+        return (h & 0xFF) | 1;
+    }
+}
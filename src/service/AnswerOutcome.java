@@ -0,0 +1,17 @@
+package service;
+
+public enum AnswerOutcome {
+    CORRECT,
+    LEVEL_UP,
+    QUIZ_COMPLETE,
+    WRONG,
+    GAME_OVER;
+
+    public boolean isCorrect() {
+        return this == CORRECT || this == LEVEL_UP || this == QUIZ_COMPLETE;
+    }
+
+    public boolean isFinal() {
+        return this == QUIZ_COMPLETE || this == GAME_OVER;
+    }
+}
@@ -0,0 +1,246 @@
+package service;
+
+import model.MathQuestion;
+import model.Question;
+import model.QuestionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+public class BatchGenerator {
+    private static final int MAGIC = 0x4D514232;
+    private static final int CHUNK = 512;
+    private static final int ATTEMPTS_PER_QUESTION = 20;
+    private static final int MAX_LEVEL = 8;
+    // Chunks generated per window and pool thread; a window is committed before the next starts.
+    private static final int WINDOW_PER_THREAD = 4;
+    // Levels 3-8 have fewer distinct questions than this (levels 5-6, the largest, about
+    // 146k), so the dedup set stops growing at 4 MiB however large the batch is.
+    private static final int MAX_DISTINCT = 1 << 18;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: BatchGenerator <level> <count> <seed> <file>");
+            System.exit(2);
+        }
+        int level = Integer.parseInt(args[0]);
+        int count = Integer.parseInt(args[1]);
+        long seed = Long.parseLong(args[2]);
+
+        long start = System.nanoTime();
+        int written = generateBatch(level, count, seed, Paths.get(args[3]));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Level " + level + ": " + written + "/" + count + " unique questions in " + millis + " ms");
+    }
+
+    public static int generateBatch(int level, int count, long seed, Path file) throws IOException {
+        if (level < 1 || level > MAX_LEVEL) throw new IllegalArgumentException("level must be 1-" + MAX_LEVEL + ": " + level);
+        if (count < 0) throw new IllegalArgumentException("count must not be negative: " + count);
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeByte(level);
+
+            LazyPermutation space = null;
+            FingerprintSet seen = null;
+            int total = count;
+            if (level == 1 || level == 2) {
+                space = new LazyPermutation(QuestionGenerator.level1_2SpaceSize(level), new RandomSource(seed));
+                total = Math.min(count, space.size());
+            } else {
+                seen = new FingerprintSet(Math.min(count, MAX_DISTINCT));
+            }
+
+            int chunks = (total + CHUNK - 1) / CHUNK;
+            int window = Math.max(1, ForkJoinPool.getCommonPoolParallelism()) * WINDOW_PER_THREAD;
+            Chunk[] pending = new Chunk[Math.min(window, Math.max(1, chunks))];
+            int written = 0;
+            for (int first = 0; first < chunks; first += pending.length) {
+                int n = Math.min(pending.length, chunks - first);
+                for (int c = 0; c < n; c++) {
+                    int from = (first + c) * CHUNK;
+                    pending[c] = new Chunk(level, from, Math.min(total, from + CHUNK), seed, space);
+                }
+                ForkJoinPool.commonPool().invoke(new ChunkTask(pending, 0, n));
+                for (int c = 0; c < n; c++) {
+                    written += pending[c].commit(seen, out);
+                    pending[c] = null;
+                }
+            }
+            return written;
+        }
+    }
+
+    public static int readBatch(Path file, Consumer<MathQuestion> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a question batch file: " + file);
+            int level = in.readByte();
+            Question.QuestionDifficulty difficulty = QuestionGenerator.getDifficultyByLevel(level);
+
+            int read = 0;
+            while (true) {
+                int templateId;
+                try {
+                    templateId = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    return read;
+                }
+                QuestionTemplate template = QuestionTemplate.byId(templateId);
+                int[] operands = new int[in.readUnsignedByte()];
+                for (int i = 0; i < operands.length; i++) operands[i] = in.readShort();
+                double answer = in.readDouble();
+                int points = in.readShort();
+                double[] options = new double[in.readUnsignedByte()];
+                for (int i = 0; i < options.length; i++) options[i] = in.readDouble();
+                int[] denominators = null;
+                if (in.readBoolean()) {
+                    denominators = new int[options.length];
+                    for (int i = 0; i < denominators.length; i++) denominators[i] = in.readShort();
+                }
+
+                consumer.accept(new MathQuestion(template, operands, answer, points, difficulty,
+                                                 options, denominators));
+                read++;
+            }
+        }
+    }
+
+    // Generates the candidates of chunks [from, to) of a window in parallel.
+    private static class ChunkTask extends RecursiveAction {
+        private final Chunk[] chunks;
+        private final int from, to;
+
+        ChunkTask(Chunk[] chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunks[from].generate();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(chunks, from, mid), new ChunkTask(chunks, mid, to));
+        }
+    }
+
+    // One CHUNK of the batch. Its questions depend only on the seed and its start index:
+    // generate() draws them in parallel with the other chunks, and commit() dedups them
+    // against the batch in chunk order, drawing replacements for duplicates from the
+    // same RandomSource, so thread timing never decides which chunk keeps a question.
+    private static class Chunk {
+        private final int level, from, to;
+        private final RandomSource rng;
+        private final LazyPermutation space;
+        private final MathQuestion[] candidates;
+
+        Chunk(int level, int from, int to, long seed, LazyPermutation space) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+            this.rng = new RandomSource(seed * 0x9E3779B97F4A7C15L + from);
+            this.space = space;
+            this.candidates = new MathQuestion[to - from];
+        }
+
+        void generate() {
+            for (int i = 0; i < candidates.length; i++) {
+                candidates[i] = (space != null)
+                    ? QuestionGenerator.level1_2QuestionAt(level, space.indexAt(from + i), rng)
+                    : QuestionGenerator.createQuestion(level, rng);
+            }
+        }
+
+        // Writes the chunk's unique questions and returns how many there were.
+        int commit(FingerprintSet seen, DataOutputStream out) throws IOException {
+            if (seen == null) {
+                for (MathQuestion q : candidates) write(q, out);
+                return candidates.length;
+            }
+            int quota = to - from;
+            int kept = 0;
+            for (MathQuestion q : candidates) {
+                if (seen.add(q.fingerprint())) {
+                    write(q, out);
+                    kept++;
+                }
+            }
+            for (int attempts = quota; kept < quota && attempts < quota * ATTEMPTS_PER_QUESTION; attempts++) {
+                MathQuestion q = QuestionGenerator.createQuestion(level, rng);
+                if (seen.add(q.fingerprint())) {
+                    write(q, out);
+                    kept++;
+                }
+            }
+            return kept;
+        }
+
+        private static void write(MathQuestion q, DataOutputStream out) throws IOException {
+            int[] operands = q.getOperands();
+            out.writeByte(q.getTemplate().ordinal());
+            out.writeByte(operands.length);
+            for (int operand : operands) writeShort(operand, out);
+            out.writeDouble(q.getCorrectAnswer());
+            out.writeShort(q.getPoints());
+            double[] options = q.getOptionValues();
+            out.writeByte(options.length);
+            for (double option : options) out.writeDouble(option);
+            int[] denominators = q.getOptionDenominators();
+            out.writeBoolean(denominators != null);
+            if (denominators != null) {
+                for (int d : denominators) writeShort(d, out);
+            }
+        }
+
+        private static void writeShort(int value, DataOutputStream out) throws IOException {
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE)
+                throw new IOException("Operand out of range for batch format: " + value);
+            out.writeShort(value);
+        }
+    }
+
+    // Open-addressed set of 64-bit fingerprints, used only by the committing thread. Once
+    // it holds MAX_DISTINCT entries every further fingerprint counts as a duplicate.
+    private static class FingerprintSet {
+        private final long[] slots;
+        private final int mask;
+        private int size;
+
+        FingerprintSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1) << 1;
+            slots = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        boolean add(long fingerprint) {
+            long key = (fingerprint == 0) ? 1 : fingerprint;
+            int i = (int) key & mask;
+            while (true) {
+                long current = slots[i];
+                if (current == key) return false;
+                if (current == 0) {
+                    if (size >= MAX_DISTINCT || size >= slots.length / 2) return false;
+                    slots[i] = key;
+                    size++;
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package service;
+
+import model.QuestionTemplate;
+
+public enum DistractorStrategy {
+    SMALL_OFFSET {
+        double candidate(double correct, RandomSource rng) {
+            int off = rng.nextInt(3) + 1;
+            return correct + (rng.nextBoolean() ? off : -off);
+        }
+    },
+    PRODUCT_OFFSET {
+        double candidate(double correct, RandomSource rng) {
+            int off = rng.nextInt(9) + 2;
+            double wrong = correct + (rng.nextBoolean() ? off : -off);
+            return (wrong <= 0) ? correct + off : wrong;
+        }
+    },
+    QUOTIENT_PERCENT {
+        double candidate(double correct, RandomSource rng) {
+            double pct = 0.10 + rng.nextDouble() * 0.10;
+            return correct * (1 + (rng.nextBoolean() ? pct : -pct));
+        }
+    },
+    ROOT_SPREAD {
+        double candidate(double correct, RandomSource rng) {
+            return correct + (rng.nextDouble() * 6 - 3);
+        }
+    },
+    PERCENT_OFFSET {
+        double candidate(double correct, RandomSource rng) {
+            double off = Math.max(2.0, Math.abs(correct) * 0.12) * (0.8 + rng.nextDouble() * 0.4);
+            return correct + (rng.nextBoolean() ? off : -off);
+        }
+    },
+    AVERAGE_SPREAD {
+        double candidate(double correct, RandomSource rng) {
+            return correct + (rng.nextDouble() * 10 - 5);
+        }
+    },
+    WIDE_SPREAD {
+        double candidate(double correct, RandomSource rng) {
+            return correct + (rng.nextDouble() * 12 - 6);
+        }
+    },
+    VOLUME_SCALE {
+        double candidate(double correct, RandomSource rng) {
+            return correct * (0.88 + rng.nextDouble() * 0.24);
+        }
+    },
+    ADVANCED {
+        double candidate(double correct, RandomSource rng) {
+            boolean isSmallInt = (correct == Math.floor(correct)) && (Math.abs(correct) <= 20);
+            if (isSmallInt) {
+                int off = rng.nextInt(4) + 1;
+                return correct + (rng.nextBoolean() ? off : -off);
+            }
+            double pct = 0.10 + rng.nextDouble() * 0.15;
+            double wrong = correct * (1 + (rng.nextBoolean() ? pct : -pct));
+            return (wrong <= 0 && correct > 0) ? correct * (1 + pct) : wrong;
+        }
+    },
+    TRIG_TABLE {
+        double candidate(double correct, RandomSource rng) {
+            return TRIG_VALUES[rng.nextInt(TRIG_VALUES.length)];
+        }
+
+        // Table values sit well apart, so the offset-based fill would reject most of them:
+        // draw from the table, then top up by walking it in order.
+        @Override
+        public void fill(double correct, double[] options, RandomSource rng) {
+            int filled = 1;
+            for (int draw = 0; draw < RANDOM_DRAWS && filled < options.length; draw++) {
+                double wrong = candidate(correct, rng);
+                if (accept(wrong, correct, TABLE_MIN_DIFF, options, filled)) options[filled++] = wrong;
+            }
+            for (int i = 0; i < TRIG_VALUES.length && filled < options.length; i++) {
+                if (accept(TRIG_VALUES[i], correct, TABLE_MIN_DIFF, options, filled)) options[filled++] = TRIG_VALUES[i];
+            }
+        }
+    };
+
+    private static final double[] TRIG_VALUES =
+            {0, 0.5, Math.sqrt(2) / 2, Math.sqrt(3) / 2, Math.sqrt(3) / 3, Math.sqrt(3), 1};
+    private static final int RANDOM_DRAWS = 12;
+    private static final double TABLE_MIN_DIFF = 0.001;
+    private static final double MIN_SEPARATION = 0.02;
+
+    abstract double candidate(double correct, RandomSource rng);
+
+    public static DistractorStrategy forTemplate(QuestionTemplate template) {
+        switch (template) {
+            case ADD: case SUBTRACT: case LOGARITHM:
+                return SMALL_OFFSET;
+            case MULTIPLY: case MULTIPLY3:
+                return PRODUCT_OFFSET;
+            case DIVIDE:
+                return QUOTIENT_PERCENT;
+            case SQUARE_ROOT:
+                return ROOT_SPREAD;
+            case PERCENT:
+                return PERCENT_OFFSET;
+            case AVERAGE:
+                return AVERAGE_SPREAD;
+            case MULTIPLY_DIVIDE: case SUBSTITUTION: case FRACTION_OF:
+            case NEGATIVE_SUBTRACT: case NEGATIVE_ADD:
+                return WIDE_SPREAD;
+            case BOX_VOLUME:
+                return VOLUME_SCALE;
+            case TRIGONOMETRY:
+                return TRIG_TABLE;
+            case DISCRIMINANT: case CIRCLE_AREA: case LINEAR_SYSTEM: case MIXED:
+                return ADVANCED;
+            default:
+                throw new IllegalArgumentException("No distractor strategy for " + template);
+        }
+    }
+
+    // options[0] holds the correct answer; fills options[1..] with distinct wrong values.
+    public void fill(double correct, double[] options, RandomSource rng) {
+        boolean isInteger = (correct == Math.floor(correct)) && !Double.isInfinite(correct);
+        double minDiff = Math.max(0.5, Math.abs(correct) * 0.05);
+        int filled = 1;
+
+        for (int draw = 0; draw < RANDOM_DRAWS && filled < options.length; draw++) {
+            double wrong = candidate(correct, rng);
+            if (isInteger) wrong = Math.round(wrong);
+            if (accept(wrong, correct, minDiff, options, filled)) options[filled++] = wrong;
+        }
+
+        double step = isInteger ? Math.ceil(minDiff) : minDiff;
+        for (int k = 1; filled < options.length; k++) {
+            double above = correct + k * step;
+            if (accept(above, correct, minDiff, options, filled)) options[filled++] = above;
+            double below = correct - k * step;
+            if (filled < options.length && accept(below, correct, minDiff, options, filled))
+                options[filled++] = below;
+        }
+    }
+
+    private static boolean accept(double wrong, double correct, double minDiff, double[] options, int filled) {
+        if (Double.isNaN(wrong) || Double.isInfinite(wrong)) return false;
+        if (Math.abs(wrong - correct) < minDiff) return false;
+        for (int i = 1; i < filled; i++) {
+            if (Math.abs(options[i] - wrong) < MIN_SEPARATION) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,9 @@
+package service;
+
+import model.Player;
+
+public interface GameEventListener {
+    // Called after the player state has been updated for the answer; points is what a
+    // correct answer earned and 0 otherwise.
+    void onAnswer(Player player, AnswerOutcome outcome, int points);
+}
@@ -1,16 +1,45 @@
 package service;
 
+import events.AnswerCheckedEvent;
+import events.LevelUpEvent;
+import logging.LogSite;
+import logging.QuizLog;
+import metrics.GameMetrics;
 import model.Player;
 import model.MathQuestion;
-import javax.swing.JOptionPane;
+import model.QuestionTemplate;
 
 public class GameService {
+    private static final LogSite QUESTION_RETRY = new LogSite("GameService.questionRetry", QuizLog.Level.WARN);
+    private static final LogSite QUESTION_FALLBACK = new LogSite("GameService.questionFallback", QuizLog.Level.ERROR);
+    private static final LogSite NO_QUESTION = new LogSite("GameService.noQuestion", QuizLog.Level.ERROR);
+    private static final LogSite INVALID_OPTION = new LogSite("GameService.invalidOption", QuizLog.Level.ERROR);
+    
     private Player player;
     private MathQuestion currentQuestion;
+    private final QuestionSource source;
+    private final QuestionPool pool;
+    private GameEventListener listener;
     
     public GameService(String playerName) {
+        this(playerName, new QuestionGenerator());
+    }
+    
+    public GameService(String playerName, QuestionGenerator generator) {
+        this(playerName, generator, null);
+    }
+    
+    public GameService(String playerName, QuestionGenerator generator, QuestionPool pool) {
+        this.player = new Player(playerName);
+        this.source = (pool != null) ? pool : generator;
+        this.pool = pool;
+        generator.resetPatterns();
+    }
+    
+    public GameService(String playerName, QuestionSource source) {
         this.player = new Player(playerName);
-        QuestionGenerator.resetPatterns();
+        this.source = source;
+        this.pool = null;
     }
     
     public void startNewQuestion() {
@@ -19,41 +48,33 @@ public class GameService {
             return;
         }
         
-        if (player.canLevelUp() && player.getLevel() < 8) {
-            player.setLevel(player.getLevel() + 1);
-            QuestionGenerator.resetPatterns();
-        }
-        
         int currentLevel = Math.min(player.getLevel(), 8);
         int attempts = 0;
         
         while (attempts < 3) {
-            currentQuestion = QuestionGenerator.generateQuestion(currentLevel);
+            currentQuestion = source.nextQuestion(currentLevel);
             
-            if (currentQuestion != null && 
-                currentQuestion.getOptions() != null && 
-                currentQuestion.getOptions().length >= 4) {
+            if (currentQuestion != null && currentQuestion.getOptionCount() >= 4) {
                 break;
             }
             
             attempts++;
-            System.err.println("[WARN] Attempt " + attempts + ": Generated invalid question, retrying...");
+            GameMetrics.get().countQuestionRetry();
+            QUESTION_RETRY.log("Generated invalid question, retrying", "attempt", attempts);
         }
         
         if (currentQuestion == null) {
-            System.err.println("[ERROR] Failed to generate question, creating fallback...");
+            GameMetrics.get().countQuestionFallback();
+            QUESTION_FALLBACK.log("Failed to generate question, using fallback", "level", currentLevel);
             currentQuestion = createFallbackQuestion(currentLevel);
         }
-        
-        System.out.println("[GameService] Level " + currentLevel + 
-                          " - Question generated: " + (currentQuestion != null));
     }
     
     private MathQuestion createFallbackQuestion(int level) {
-        String question = "2 + 2 = ?";
+        int[] operands = {2, 2};
         double answer = 4;
         int points = 10;
-        String[] options = {"3", "4", "5", "6"};
+        double[] options = {3, 4, 5, 6};
         
         model.Question.QuestionDifficulty difficulty;
         if (level <= 2) difficulty = model.Question.QuestionDifficulty.EASY;
@@ -61,71 +82,92 @@ public class GameService {
         else if (level <= 6) difficulty = model.Question.QuestionDifficulty.HARD;
         else difficulty = model.Question.QuestionDifficulty.EXPERT;
         
-        return new MathQuestion(question, answer, points, difficulty, options);
+        return new MathQuestion(QuestionTemplate.ADD, operands, answer, points, difficulty, options, null);
+    }
+    
+    // Grades the selection and advances the game: a correct answer levels up when the
+    // level is complete and moves to the next question; a wrong one keeps the question.
+    public AnswerOutcome submitAnswer(int selectedOption) {
+        int points = (currentQuestion != null) ? currentQuestion.getPoints() : 0;
+        AnswerOutcome outcome = advance(checkAnswer(selectedOption));
+        if (listener != null) listener.onAnswer(player, outcome, outcome.isCorrect() ? points : 0);
+        return outcome;
+    }
+    
+    private AnswerOutcome advance(boolean correct) {
+        if (!correct) {
+            return player.isAlive() ? AnswerOutcome.WRONG : AnswerOutcome.GAME_OVER;
+        }
+        
+        boolean leveledUp = false;
+        if (player.canLevelUp()) {
+            player.setLevel(player.getLevel() + 1);
+            leveledUp = true;
+            LevelUpEvent event = new LevelUpEvent();
+            if (event.shouldCommit()) {
+                event.player = player.getName();
+                event.level = player.getLevel();
+                event.score = player.getScore();
+                event.commit();
+            }
+        }
+        
+        startNewQuestion();
+        if (player.isQuizComplete()) return AnswerOutcome.QUIZ_COMPLETE;
+        return leveledUp ? AnswerOutcome.LEVEL_UP : AnswerOutcome.CORRECT;
+    }
+    
+    // Continues a saved game: copies its progress into this session's player.
+    public void resume(Player saved) {
+        player.setName(saved.getName());
+        player.restore(saved.getScore(), saved.getLevel(), saved.getLives(), saved.getQuestionsAnswered(),
+                       saved.getLevelProgress().getQuestionsInCurrentLevel());
+    }
+    
+    public void setListener(GameEventListener listener) {
+        this.listener = listener;
     }
     
     public boolean checkAnswer(int selectedOption) {
+        AnswerCheckedEvent event = new AnswerCheckedEvent();
+        event.begin();
+        long start = GameMetrics.start();
+        boolean correct = grade(selectedOption);
+        GameMetrics.get().recordCheckAnswer(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.level = player.getLevel();
+            event.correct = correct;
+            event.selectedOption = selectedOption;
+            event.correctOption = (currentQuestion != null) ? currentQuestion.getCorrectIndex() : -1;
+            event.commit();
+        }
+        return correct;
+    }
+    
+    private boolean grade(int selectedOption) {
         if (currentQuestion == null) {
-            System.err.println("[ERROR] No current question!");
-            showErrorMessage("Tidak ada pertanyaan saat ini!");
+            NO_QUESTION.log("No current question");
             return false;
         }
         
-        String[] options = currentQuestion.getOptions();
-        
-        if (selectedOption < 0 || selectedOption >= options.length) {
-            System.err.println("[ERROR] Invalid option index: " + selectedOption);
-            showErrorMessage("Pilihan tidak valid!");
+        if (selectedOption < 0 || selectedOption >= currentQuestion.getOptionCount()) {
+            INVALID_OPTION.log("Invalid option index", "option", selectedOption);
             player.loseLife();
             return false;
         }
         
-        try {
-            String selectedAnswer = options[selectedOption];
-            
-            double answer;
-            if (selectedAnswer.equals("∞") || selectedAnswer.equalsIgnoreCase("infinity")) {
-                answer = Double.POSITIVE_INFINITY;
-            } else if (selectedAnswer.equalsIgnoreCase("Error") ||
-                      selectedAnswer.equalsIgnoreCase("Tidak terdefinisi")) {
-                answer = Double.NaN;
-            } else {
-                selectedAnswer = selectedAnswer.replace(',', '.').replace(" ", "");
-                try {
-                    answer = parseSymbolicAnswer(selectedAnswer);
-                } catch (NumberFormatException ex) {
-                    answer = Double.parseDouble(selectedAnswer);
-                }
-            }
-            
-            boolean isCorrect = currentQuestion.checkAnswer(answer);
-            
-            if (isCorrect) {
-                player.addScore(currentQuestion.getPoints());
-                player.incrementQuestionsAnswered();
-                return true;
-            } else {
-                player.loseLife();
-                return false;
-            }
-        } catch (NumberFormatException e) {
-            System.err.println("[ERROR] Invalid number format in answer: " + e.getMessage());
-            showErrorMessage("Format jawaban tidak valid!");
-            player.loseLife();
-            return false;
-        } catch (Exception e) {
-            System.err.println("[ERROR] Unexpected error in checkAnswer: " + e.getMessage());
-            showErrorMessage("Terjadi kesalahan sistem!");
-            player.loseLife();
-            return false;
+        if (currentQuestion.isCorrectOption(selectedOption)) {
+            player.addScore(currentQuestion.getPoints());
+            player.incrementQuestionsAnswered();
+            return true;
         }
+        player.loseLife();
+        return false;
     }
     
-    private void showErrorMessage(String message) {
-        System.err.println("[UI Error] " + message);
-    }
-
-    private double parseSymbolicAnswer(String s) throws NumberFormatException {
+    // Only for free-text answers; option clicks are graded by index in checkAnswer.
+    double parseSymbolicAnswer(String s) throws NumberFormatException {
         if (s == null || s.isEmpty()) throw new NumberFormatException("Empty answer");
 
         if (s.startsWith("akar") && !s.contains("/")) {
@@ -160,10 +202,12 @@ public class GameService {
         return player.canLevelUp();
     }
     
-    public void levelUp() {
-        if (canLevelUp() && player.getLevel() < 8) {
-            player.setLevel(player.getLevel() + 1);
-        }
+    public void shutdown() {
+        if (pool != null) pool.shutdown();
+    }
+    
+    public QuestionPool getPool() {
+        return pool;
     }
     
     public Player getPlayer() { 
@@ -0,0 +1,153 @@
+package service;
+
+import model.MathQuestion;
+import model.Player;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Plays whole games headlessly with a bot of fixed per-level accuracy, spread over the
+// common fork/join pool. Questions come from pre-generated per-level decks so the run
+// measures the game rules, not question generation.
+public class GameSimulator {
+    private static final int MAX_LEVEL = 8;
+    private static final int DECK_SIZE = 512;
+    private static final int CHUNK = 4096;
+
+    private final MathQuestion[][] decks = new MathQuestion[MAX_LEVEL][DECK_SIZE];
+    private final double[] accuracy;
+    private final long seed;
+
+    public GameSimulator(double[] accuracy, long seed) {
+        if (accuracy.length != 1 && accuracy.length != MAX_LEVEL)
+            throw new IllegalArgumentException("accuracy needs 1 or " + MAX_LEVEL + " values: " + accuracy.length);
+        this.accuracy = new double[MAX_LEVEL];
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            double p = accuracy[(accuracy.length == 1) ? 0 : i];
+            if (!(p >= 0 && p <= 1)) throw new IllegalArgumentException("accuracy must be in [0, 1]: " + p);
+            this.accuracy[i] = p;
+        }
+        this.seed = seed;
+
+        RandomSource rng = new RandomSource(seed);
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            for (int i = 0; i < DECK_SIZE; i++) {
+                decks[level - 1][i] = QuestionGenerator.createQuestion(level, rng);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: GameSimulator <games> <accuracy|a1,a2,...,a8> [seed]");
+            System.exit(2);
+        }
+        long games = Long.parseLong(args[0]);
+        String[] parts = args[1].split(",");
+        double[] accuracy = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) accuracy[i] = Double.parseDouble(parts[i]);
+        long seed = (args.length == 3) ? Long.parseLong(args[2]) : 42L;
+
+        GameSimulator simulator = new GameSimulator(accuracy, seed);
+        long start = System.nanoTime();
+        Stats stats = simulator.run(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d games in %.2f s (%.0f games/s, %d threads)%n",
+                stats.games, seconds, stats.games / seconds, ForkJoinPool.commonPool().getParallelism());
+        stats.print(System.out);
+    }
+
+    public Stats run(long games) {
+        if (games < 0) throw new IllegalArgumentException("games must not be negative: " + games);
+        return ForkJoinPool.commonPool().invoke(new ChunkTask(0, games));
+    }
+
+    private Stats play(long from, long to) {
+        RandomSource rng = new RandomSource(seed * 0x9E3779B97F4A7C15L + from);
+        QuestionSource deck = level -> decks[level - 1][rng.nextInt(DECK_SIZE)];
+        Stats stats = new Stats();
+
+        for (long g = from; g < to; g++) {
+            GameService game = new GameService("bot", deck);
+            game.startNewQuestion();
+            AnswerOutcome outcome;
+            do {
+                MathQuestion question = game.getCurrentQuestion();
+                int correct = question.getCorrectIndex();
+                int choice = correct;
+                if (rng.nextDouble() >= accuracy[game.getPlayer().getLevel() - 1]) {
+                    choice = rng.nextInt(question.getOptionCount() - 1);
+                    if (choice >= correct) choice++;
+                }
+                outcome = game.submitAnswer(choice);
+                stats.answers++;
+            } while (!outcome.isFinal());
+            stats.record(game.getPlayer(), outcome);
+        }
+        return stats;
+    }
+
+    private class ChunkTask extends RecursiveTask<Stats> {
+        private final long from, to;
+
+        ChunkTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= CHUNK) return play(from, to);
+
+            long mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(from, mid);
+            left.fork();
+            Stats right = new ChunkTask(mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    public static class Stats {
+        private long games;
+        private long completed;
+        private long answers;
+        private long totalScore;
+        private int maxScore;
+        private final long[] endedAtLevel = new long[MAX_LEVEL];
+
+        void record(Player player, AnswerOutcome outcome) {
+            games++;
+            if (outcome == AnswerOutcome.QUIZ_COMPLETE) completed++;
+            else endedAtLevel[player.getLevel() - 1]++;
+            totalScore += player.getScore();
+            maxScore = Math.max(maxScore, player.getScore());
+        }
+
+        Stats merge(Stats other) {
+            games += other.games;
+            completed += other.completed;
+            answers += other.answers;
+            totalScore += other.totalScore;
+            maxScore = Math.max(maxScore, other.maxScore);
+            for (int i = 0; i < MAX_LEVEL; i++) endedAtLevel[i] += other.endedAtLevel[i];
+            return this;
+        }
+
+        public long getGames() { return games; }
+        public long getCompleted() { return completed; }
+        public long getAnswers() { return answers; }
+        public double getAverageScore() { return (games == 0) ? 0 : (double) totalScore / games; }
+        public int getMaxScore() { return maxScore; }
+        public long getGameOversAtLevel(int level) { return endedAtLevel[level - 1]; }
+
+        public void print(java.io.PrintStream out) {
+            if (games == 0) return;
+            out.printf("completed: %.2f%%, avg score: %.1f, max score: %d, answers/game: %.1f%n",
+                    100.0 * completed / games, getAverageScore(), maxScore, (double) answers / games);
+            for (int level = 1; level <= MAX_LEVEL; level++) {
+                out.printf("  game over at level %d: %6.2f%%%n", level, 100.0 * endedAtLevel[level - 1] / games);
+            }
+        }
+    }
+}
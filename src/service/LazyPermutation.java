@@ -0,0 +1,65 @@
+package service;
+
+// Pseudo-random bijection over [0, size): a balanced Feistel network on the next
+// even power of two, cycle-walked back into range. Nothing is materialised.
+public class LazyPermutation {
+    private static final int ROUNDS = 4;
+
+    private final int size;
+    private final int halfBits;
+    private final int halfMask;
+    private final long[] keys = new long[ROUNDS];
+    private final RandomSource rng;
+    private int position;
+
+    public LazyPermutation(int size, RandomSource rng) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive: " + size);
+        this.size = size;
+        this.rng = rng;
+        int bits = 32 - Integer.numberOfLeadingZeros(size - 1);
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = (1 << halfBits) - 1;
+        reseed();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int next() {
+        if (position == size) {
+            position = 0;
+            reseed();
+        }
+        return indexAt(position++);
+    }
+
+    public int indexAt(int i) {
+        int x = i;
+        do {
+            x = encrypt(x);
+        } while (x >= size);
+        return x;
+    }
+
+    private void reseed() {
+        for (int r = 0; r < ROUNDS; r++) keys[r] = rng.nextLong();
+    }
+
+    private int encrypt(int x) {
+        int left = x >>> halfBits;
+        int right = x & halfMask;
+        for (int r = 0; r < ROUNDS; r++) {
+            int tmp = left ^ round(right, keys[r]);
+            left = right;
+            right = tmp;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private int round(int value, long key) {
+        long h = (value ^ key) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        return (int) h & halfMask;
+    }
+}
@@ -0,0 +1,146 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Best score per player id, carrying the player's display name; safe for many
+// concurrent sessions. Ordering lives in a skip list (top-K walks its head); ranks
+// come from a Fenwick tree of per-score counts, so both updates and rank queries
+// are O(log n) with no global lock.
+public class Leaderboard {
+    // Highest score a full game can reach: 10 questions per level, level * 10/20/30/50 points.
+    public static final int DEFAULT_MAX_SCORE = 12_500;
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        if (a.score != b.score) return Integer.compare(b.score, a.score);
+        if (a.sequence != b.sequence) return Long.compare(a.sequence, b.sequence);
+        return a.id.compareTo(b.id);
+    };
+
+    private final ConcurrentHashMap<String, Entry> best = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray tree;
+    private final int maxScore;
+
+    public static final class Entry {
+        private final String id;
+        private final String name;
+        private final int score;
+        private final long sequence;
+
+        Entry(String id, String name, int score, long sequence) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        public String getPlayer() { return id; }
+        public String getName() { return name; }
+        public int getScore() { return score; }
+
+        @Override
+        public String toString() {
+            return name + "=" + score;
+        }
+    }
+
+    public Leaderboard() {
+        this(DEFAULT_MAX_SCORE);
+    }
+
+    public Leaderboard(int maxScore) {
+        if (maxScore < 0) throw new IllegalArgumentException("maxScore must not be negative: " + maxScore);
+        this.maxScore = maxScore;
+        this.tree = new AtomicLongArray(maxScore + 2);
+    }
+
+    // For players whose name is their id.
+    public boolean submit(String player, int score) {
+        return submit(player, player, score);
+    }
+
+    // Records score if it beats the player's best; returns true when the board changed.
+    public boolean submit(String player, String name, int score) {
+        if (score < 0) throw new IllegalArgumentException("score must not be negative: " + score);
+        if (name == null) throw new IllegalArgumentException("name must not be null");
+        boolean[] changed = new boolean[1];
+        best.compute(player, (id, previous) -> {
+            if (previous != null && previous.score >= score) return previous;
+            Entry entry = new Entry(id, name, score, sequence.incrementAndGet());
+            ranking.add(entry);
+            add(bucket(score), 1);
+            if (previous != null) {
+                ranking.remove(previous);
+                add(bucket(previous.score), -1);
+            }
+            changed[0] = true;
+            return entry;
+        });
+        return changed[0];
+    }
+
+    public boolean remove(String player) {
+        boolean[] removed = new boolean[1];
+        best.computeIfPresent(player, (id, previous) -> {
+            ranking.remove(previous);
+            add(bucket(previous.score), -1);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public List<Entry> top(int k) {
+        List<Entry> result = new ArrayList<>(Math.min(k, 1024));
+        Iterator<Entry> it = ranking.iterator();
+        while (result.size() < k && it.hasNext()) result.add(it.next());
+        return result;
+    }
+
+    // 1-based; players with equal scores share a rank. Returns -1 for unknown players.
+    public int rank(String player) {
+        Entry entry = best.get(player);
+        if (entry == null) return -1;
+        return (int) (countAbove(entry.score) + 1);
+    }
+
+    public int getScore(String player) {
+        Entry entry = best.get(player);
+        return (entry != null) ? entry.score : -1;
+    }
+
+    public int size() {
+        return best.size();
+    }
+
+    public int getMaxScore() {
+        return maxScore;
+    }
+
+    // Scores above maxScore share the top bucket.
+    private int bucket(int score) {
+        return Math.min(score, maxScore) + 1;
+    }
+
+    private long countAbove(int score) {
+        return prefix(maxScore + 1) - prefix(bucket(score));
+    }
+
+    private void add(int index, long delta) {
+        for (int i = index; i < tree.length(); i += i & -i) tree.addAndGet(i, delta);
+    }
+
+    private long prefix(int index) {
+        long sum = 0;
+        for (int i = index; i > 0; i -= i & -i) sum += tree.get(i);
+        return sum;
+    }
+}
@@ -0,0 +1,351 @@
+package service;
+
+import logging.LogSite;
+import logging.QuizLog;
+import model.Player;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Lifetime stats per player name in two memory-mapped files:
+//   profiles.dat  header + fixed-width 160-byte records, appended in creation order
+//   profiles.idx  open-addressed hash index, slot = (name hash << 32) | (record + 1)
+// A lookup probes the index and compares one record's name bytes, so opening the store
+// and loading a profile never scan the data file. The index is rebuilt from the records
+// only when it is missing, stale or being grown. Names longer than MAX_NAME_BYTES are
+// cut at a code point boundary, for lookups as well as for storage. A background thread
+// forces both files every commit interval, so lifetime stats survive a crash.
+// Best scores of players who finished a game also feed a Leaderboard, seeded on open,
+// so rank queries are O(log n) and never take the store lock.
+public class ProfileStore implements GameEventListener, AutoCloseable {
+    private static final LogSite UPDATE_FAILED = new LogSite("ProfileStore.update", QuizLog.Level.ERROR);
+
+    public static final int MAX_NAME_BYTES = 47;
+    public static final int LEVELS = 8;
+
+    private static final int DATA_MAGIC  = 0x4D515046;
+    private static final int INDEX_MAGIC = 0x4D515049;
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 160;
+    private static final int INITIAL_RECORDS = 1024;
+
+    // Data header
+    private static final int H_MAGIC = 0, H_COUNT = 4, H_LAST = 8;
+    // Index header
+    private static final int I_MAGIC = 0, I_SLOTS = 4, I_COUNT = 8;
+    // Record layout
+    private static final int R_NAME_LEN = 0, R_NAME = 1;
+    private static final int R_GAMES = 48, R_BEST = 52, R_HIGHEST = 56, R_LAST_PLAYED = 64;
+    private static final int R_ANSWERED = 72, R_CORRECT = R_ANSWERED + 4 * LEVELS;
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final long commitNanos;
+    private final Thread flusher;
+    private volatile boolean dirty;
+    private volatile boolean closed;
+    private final Leaderboard bests = new Leaderboard();
+    private MappedByteBuffer data;
+    private MappedByteBuffer index;
+    private int recordCapacity;
+    private int slotMask;
+
+    public static final class Profile {
+        private final String name;
+        private final int gamesPlayed;
+        private final int bestScore;
+        private final int highestLevel;
+        private final long lastPlayed;
+        private final int[] answered;
+        private final int[] correct;
+
+        Profile(String name, int gamesPlayed, int bestScore, int highestLevel, long lastPlayed,
+                int[] answered, int[] correct) {
+            this.name = name;
+            this.gamesPlayed = gamesPlayed;
+            this.bestScore = bestScore;
+            this.highestLevel = highestLevel;
+            this.lastPlayed = lastPlayed;
+            this.answered = answered;
+            this.correct = correct;
+        }
+
+        public String getName() { return name; }
+        public int getGamesPlayed() { return gamesPlayed; }
+        public int getBestScore() { return bestScore; }
+        public int getHighestLevel() { return highestLevel; }
+        public long getLastPlayed() { return lastPlayed; }
+        public int getAnswered(int level) { return answered[level - 1]; }
+        public int getCorrect(int level) { return correct[level - 1]; }
+
+        public double getAccuracy(int level) {
+            int n = answered[level - 1];
+            return (n == 0) ? 0 : (double) correct[level - 1] / n;
+        }
+    }
+
+    public ProfileStore(Path directory) throws IOException {
+        this(directory, Long.getLong("mathquiz.profiles.commitMillis", 1000));
+    }
+
+    public ProfileStore(Path directory, long commitMillis) throws IOException {
+        if (commitMillis <= 0) throw new IllegalArgumentException("commitMillis must be positive: " + commitMillis);
+        this.commitNanos = TimeUnit.MILLISECONDS.toNanos(commitMillis);
+        Files.createDirectories(directory);
+        dataChannel = FileChannel.open(directory.resolve("profiles.dat"), StandardOpenOption.CREATE,
+                                       StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(directory.resolve("profiles.idx"), StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long dataSize = dataChannel.size();
+        if (dataSize == 0) {
+            mapData(INITIAL_RECORDS);
+            data.putInt(H_MAGIC, DATA_MAGIC);
+        } else {
+            if (dataSize < HEADER_BYTES) throw new IOException("Truncated profile store");
+            mapData(Math.max(INITIAL_RECORDS, (int) ((dataSize - HEADER_BYTES) / RECORD_BYTES)));
+            if (data.getInt(H_MAGIC) != DATA_MAGIC) throw new IOException("Not a profile store");
+        }
+
+        long indexSize = indexChannel.size();
+        int slots = (indexSize > HEADER_BYTES) ? (int) ((indexSize - HEADER_BYTES) / 8) : 0;
+        if (slots > 0 && Integer.bitCount(slots) == 1) mapIndex(slots);
+        if (index == null || index.getInt(I_MAGIC) != INDEX_MAGIC || index.getInt(I_SLOTS) != slots
+                || index.getInt(I_COUNT) != count()) {
+            rebuildIndex(slotsFor(Math.max(count(), INITIAL_RECORDS)));
+        }
+        for (int record = 0, n = count(); record < n; record++) {
+            int base = offset(record);
+            if (data.getInt(base + R_GAMES) > 0) bests.submit(readName(record), data.getInt(base + R_BEST));
+        }
+
+        flusher = new Thread(this::flushLoop, "profile-store-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static Path defaultDirectory() {
+        return AnswerLog.defaultDirectory();
+    }
+
+    public synchronized Profile get(String name) {
+        int record = find(name);
+        if (record < 0) return null;
+        int base = offset(record);
+        int[] answered = new int[LEVELS];
+        int[] correct = new int[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            answered[i] = data.getInt(base + R_ANSWERED + 4 * i);
+            correct[i] = data.getInt(base + R_CORRECT + 4 * i);
+        }
+        return new Profile(readName(record), data.getInt(base + R_GAMES), data.getInt(base + R_BEST),
+                           data.getInt(base + R_HIGHEST), data.getLong(base + R_LAST_PLAYED), answered, correct);
+    }
+
+    public synchronized String getLastPlayer() {
+        int last = data.getInt(H_LAST) - 1;
+        return (last >= 0) ? readName(last) : null;
+    }
+
+    // Creates the profile if needed and marks it as the most recent player.
+    public synchronized void touch(String name) throws IOException {
+        int record = findOrCreate(name);
+        data.putLong(offset(record) + R_LAST_PLAYED, System.currentTimeMillis());
+        data.putInt(H_LAST, record + 1);
+        dirty = true;
+    }
+
+    public synchronized void recordAnswer(String name, int level, boolean correct) throws IOException {
+        if (level < 1 || level > LEVELS) return;
+        int base = offset(findOrCreate(name));
+        increment(base + R_ANSWERED + 4 * (level - 1));
+        if (correct) increment(base + R_CORRECT + 4 * (level - 1));
+        dirty = true;
+    }
+
+    public synchronized void recordGame(String name, int score, int level) throws IOException {
+        int record = findOrCreate(name);
+        int base = offset(record);
+        increment(base + R_GAMES);
+        data.putInt(base + R_BEST, Math.max(score, data.getInt(base + R_BEST)));
+        bests.submit(readName(record), data.getInt(base + R_BEST));
+        data.putInt(base + R_HIGHEST, Math.max(level, data.getInt(base + R_HIGHEST)));
+        data.putLong(base + R_LAST_PLAYED, System.currentTimeMillis());
+        dirty = true;
+    }
+
+    @Override
+    public void onAnswer(Player player, AnswerOutcome outcome, int points) {
+        int level = (outcome == AnswerOutcome.LEVEL_UP) ? player.getLevel() - 1 : player.getLevel();
+        try {
+            recordAnswer(player.getName(), level, outcome.isCorrect());
+            if (outcome.isFinal()) recordGame(player.getName(), player.getScore(), player.getLevel());
+        } catch (IOException | IllegalArgumentException e) {
+            UPDATE_FAILED.log("Could not update profile", e);
+        }
+    }
+
+    public synchronized int size() {
+        return count();
+    }
+
+    // Rank by lifetime best score among players who finished a game; -1 if this name never did.
+    public int rank(String name) {
+        return bests.rank(new String(encode(name), StandardCharsets.UTF_8));
+    }
+
+    public Leaderboard getLeaderboard() {
+        return bests;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            data.force();
+            index.force();
+            dataChannel.close();
+            indexChannel.close();
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(this, commitNanos);
+            if (!dirty || closed) continue;
+            dirty = false;
+            MappedByteBuffer dataMap, indexMap;
+            synchronized (this) {
+                dataMap = data;
+                indexMap = index;
+            }
+            dataMap.force();
+            indexMap.force();
+        }
+    }
+
+    private int find(String name) {
+        byte[] key = encode(name);
+        int hash = hash(key);
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            long entry = index.getLong(HEADER_BYTES + 8 * slot);
+            if (entry == 0) return -1;
+            if ((int) (entry >>> 32) == hash && nameEquals((int) entry - 1, key)) return (int) entry - 1;
+        }
+    }
+
+    private int findOrCreate(String name) throws IOException {
+        int record = find(name);
+        if (record >= 0) return record;
+
+        byte[] key = encode(name);
+        int count = count();
+        if (count == recordCapacity) mapData(recordCapacity * 2);
+        if ((count + 1) * 2 > slotMask + 1) rebuildIndex((slotMask + 1) * 2);
+
+        int base = offset(count);
+        for (int i = 0; i < RECORD_BYTES; i += 8) data.putLong(base + i, 0);
+        data.put(base + R_NAME_LEN, (byte) key.length);
+        for (int i = 0; i < key.length; i++) data.put(base + R_NAME + i, key[i]);
+        data.putInt(H_COUNT, count + 1);
+        insert(hash(key), count);
+        index.putInt(I_COUNT, count + 1);
+        return count;
+    }
+
+    private void insert(int hash, int record) {
+        int slot = hash & slotMask;
+        while (index.getLong(HEADER_BYTES + 8 * slot) != 0) slot = (slot + 1) & slotMask;
+        index.putLong(HEADER_BYTES + 8 * slot, ((long) hash << 32) | ((record + 1) & 0xFFFFFFFFL));
+    }
+
+    private void rebuildIndex(int slots) throws IOException {
+        mapIndex(slots);
+        for (int i = HEADER_BYTES; i < HEADER_BYTES + 8 * slots; i += 8) index.putLong(i, 0);
+        int count = count();
+        for (int record = 0; record < count; record++) {
+            insert(hash(readNameBytes(record)), record);
+        }
+        index.putInt(I_SLOTS, slots);
+        index.putInt(I_COUNT, count);
+        index.putInt(I_MAGIC, INDEX_MAGIC);
+    }
+
+    private void mapData(int records) throws IOException {
+        recordCapacity = records;
+        data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) RECORD_BYTES * records);
+    }
+
+    private void mapIndex(int slots) throws IOException {
+        slotMask = slots - 1;
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + 8L * slots);
+    }
+
+    private static int slotsFor(int records) {
+        return Integer.highestOneBit(Math.max(records * 2, 16) - 1) << 1;
+    }
+
+    private int count() {
+        return data.getInt(H_COUNT);
+    }
+
+    private void increment(int position) {
+        data.putInt(position, data.getInt(position) + 1);
+    }
+
+    private static int offset(int record) {
+        return HEADER_BYTES + RECORD_BYTES * record;
+    }
+
+    private boolean nameEquals(int record, byte[] key) {
+        int base = offset(record);
+        if (data.get(base + R_NAME_LEN) != key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (data.get(base + R_NAME + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private byte[] readNameBytes(int record) {
+        int base = offset(record);
+        byte[] bytes = new byte[data.get(base + R_NAME_LEN)];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = data.get(base + R_NAME + i);
+        return bytes;
+    }
+
+    private String readName(int record) {
+        return new String(readNameBytes(record), StandardCharsets.UTF_8);
+    }
+
+    // The stored key: UTF-8, cut at a code point boundary to at most MAX_NAME_BYTES.
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0) throw new IllegalArgumentException("name must not be empty");
+        if (bytes.length <= MAX_NAME_BYTES) return bytes;
+        int end = MAX_NAME_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) end--;
+        return Arrays.copyOf(bytes, end);
+    }
+
+    private static int hash(byte[] key) {
+        int h = 0x811C9DC5;
+        for (byte b : key) h = (h ^ b) * 0x01000193;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -1,462 +1,479 @@
 package service;
 
+import events.QuestionGeneratedEvent;
+import metrics.GameMetrics;
+import model.AnswerFormat;
 import model.MathQuestion;
 import model.Question;
-import java.text.DecimalFormat;
-import java.math.BigDecimal;
-import java.util.*;
+import model.QuestionTemplate;
+
+public class QuestionGenerator implements QuestionSource {
+    private static final GameMetrics METRICS = GameMetrics.get();
+
+    private final QuestionHistory history;
+    private final RandomSource rng;
+    private final Level1_2Space[] level1_2Spaces = new Level1_2Space[2];
+
+    // Retries of the last draw, for the QuestionGenerated event.
+    private int lastRetries;
+    private boolean lastFallback;
+
+    // One level's question space: the permutation round being drawn, plus indices it gave
+    // while their question was still in the history window, served once they have left.
+    // Deferring instead of dropping them keeps a round from wrapping early.
+    private static final class Level1_2Space {
+        final LazyPermutation order;
+        final int[] deferred;
+        final long[] deferredFingerprints;
+        int deferredCount;
+
+        Level1_2Space(int size, RandomSource rng, int windowSize) {
+            order = new LazyPermutation(size, rng);
+            deferred = new int[windowSize];
+            deferredFingerprints = new long[windowSize];
+        }
 
-public class QuestionGenerator {
+        boolean defer(int index, long fingerprint) {
+            if (deferredCount == deferred.length) return false;
+            deferred[deferredCount] = index;
+            deferredFingerprints[deferredCount++] = fingerprint;
+            return true;
+        }
 
-    private static Set<String> usedQuestions = new HashSet<>();
-    private static String lastQuestion = "";
+        // Oldest deferred index whose question has left the window, now added to it; or -1.
+        int takeDeferred(QuestionHistory history) {
+            for (int i = 0; i < deferredCount; i++) {
+                if (!history.add(deferredFingerprints[i])) continue;
+                int index = deferred[i];
+                int tail = deferredCount - i - 1;
+                System.arraycopy(deferred, i + 1, deferred, i, tail);
+                System.arraycopy(deferredFingerprints, i + 1, deferredFingerprints, i, tail);
+                deferredCount--;
+                return index;
+            }
+            return -1;
+        }
+    }
 
-    public static MathQuestion generateQuestion(int level) {
-        if (usedQuestions.size() > 30) usedQuestions.clear();
+    public QuestionGenerator() {
+        this(RandomSource.current().nextLong());
+    }
 
-        MathQuestion question = null;
-        int attempts = 0;
+    public QuestionGenerator(long seed) {
+        this(seed, Integer.getInteger("mathquiz.history.window", 50));
+    }
 
-        while (question == null && attempts < 10) {
-            switch (level) {
-                case 1: case 2: question = generateLevel1_2Question(level); break;
-                case 3: case 4: question = generateLevel3_4Question(level); break;
-                case 5: case 6: question = generateLevel5_6Question(level); break;
-                case 7: case 8: question = generateLevel7_8Question(level); break;
-                default:        question = generateLevel1_2Question(level); break;
-            }
-            if (question != null) {
-                String q = question.getQuestion();
-                if (usedQuestions.contains(q) || q.equals(lastQuestion)) {
-                    question = null; attempts++;
-                } else {
-                    usedQuestions.add(q); lastQuestion = q;
-                }
-            } else {
-                attempts++;
+    public QuestionGenerator(long seed, int historyWindow) {
+        this.rng = new RandomSource(seed);
+        this.history = new QuestionHistory(historyWindow);
+    }
+
+    @Override
+    public MathQuestion nextQuestion(int level) {
+        return generateQuestion(level);
+    }
+
+    public synchronized MathQuestion generateQuestion(int level) {
+        QuestionGeneratedEvent event = new QuestionGeneratedEvent();
+        event.begin();
+        long start = GameMetrics.start();
+        MathQuestion question = (level == 1 || level == 2) ? drawLevel1_2Question(level, start)
+                                                           : drawQuestion(level, start);
+        METRICS.recordGenerate(level, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.level = level;
+            event.template = question.getTemplate().name();
+            event.attempts = lastRetries + 1;
+            event.fallback = lastFallback;
+            event.commit();
+        }
+        return question;
+    }
+
+    private MathQuestion drawQuestion(int level, long start) {
+        for (int attempts = 0; attempts < 10; attempts++) {
+            MathQuestion question = createQuestion(level, rng);
+            if (history.add(question.fingerprint())) {
+                METRICS.recordDedupRetries(attempts, start);
+                lastRetries = attempts;
+                lastFallback = false;
+                return question;
             }
         }
+        METRICS.recordDedupRetries(10, start);
+        lastRetries = 10;
+        lastFallback = true;
+        METRICS.countGenerationFallback();
+        return createFallbackQuestion(level);
+    }
+
+    public synchronized void resetPatterns() {
+        history.clear();
+    }
+
+    private MathQuestion drawLevel1_2Question(int level, long start) {
+        Level1_2Space space = level1_2Spaces[level - 1];
+        if (space == null) {
+            space = new Level1_2Space(level1_2SpaceSize(level), rng, history.getWindowSize());
+            level1_2Spaces[level - 1] = space;
+        }
 
-        if (question == null) {
-            usedQuestions.clear(); lastQuestion = "";
-            return createFallbackQuestion(level);
+        // A permutation round never repeats itself. Draws still in the history window (the
+        // start of a new round, or questions the other level asked) are deferred and served
+        // once they leave it, so no index is lost and a round does not wrap early. Only when
+        // the deferral queue is full does a repeat inside the window get through.
+        int skips = 0;
+        int index = space.takeDeferred(history);
+        if (index < 0) {
+            int maxSkips = Math.min(space.order.size() - 1, history.getWindowSize());
+            index = space.order.next();
+            long fingerprint = level1_2Fingerprint(level, index);
+            while (!history.add(fingerprint) && skips < maxSkips && space.defer(index, fingerprint)) {
+                index = space.order.next();
+                fingerprint = level1_2Fingerprint(level, index);
+                skips++;
+            }
         }
+        MathQuestion question = level1_2QuestionAt(level, index, rng);
+        lastRetries = skips;
+        lastFallback = false;
+        METRICS.recordDedupRetries(lastRetries, start);
         return question;
     }
 
-    private static MathQuestion createFallbackQuestion(int level) {
-        return new MathQuestion("2 + 3 = ?", 5, 10, getDifficultyByLevel(level),
-                                new String[]{"3","4","5","6"});
+    static int level1_2SpaceSize(int level) {
+        int n = (level == 1) ? 10 : 20;
+        return n * n + n * (n + 1) / 2;
     }
 
-    public static void resetPatterns() {
-        usedQuestions.clear(); lastQuestion = "";
+    static MathQuestion level1_2QuestionAt(int level, int index, RandomSource rng) {
+        QuestionTemplate template = level1_2Template(level, index);
+        int pair = level1_2Operands(level, index);
+        int a = pair >>> 16, b = pair & 0xFFFF;
+        double answer = (template == QuestionTemplate.ADD) ? a + b : a - b;
+        return createQuestionWithOptions(template, new int[]{a, b}, answer, level * 10, level, rng);
+    }
+
+    private static long level1_2Fingerprint(int level, int index) {
+        int pair = level1_2Operands(level, index);
+        return MathQuestion.fingerprint(level1_2Template(level, index), pair >>> 16, pair & 0xFFFF);
+    }
+
+    // Indices below n * n are the sums a + b with 1 <= a, b <= n; the rest are the
+    // differences a - b with 1 <= b <= a <= n.
+    private static QuestionTemplate level1_2Template(int level, int index) {
+        int n = (level == 1) ? 10 : 20;
+        return (index < n * n) ? QuestionTemplate.ADD : QuestionTemplate.SUBTRACT;
+    }
+
+    // (a << 16) | b
+    private static int level1_2Operands(int level, int index) {
+        int n = (level == 1) ? 10 : 20;
+        if (index < n * n) return ((index / n + 1) << 16) | (index % n + 1);
+        int t = index - n * n;
+        int a = 1;
+        while (t >= a) { t -= a; a++; }
+        return (a << 16) | (t + 1);
+    }
+
+    public static MathQuestion createQuestion(int level, RandomSource rng) {
+        switch (level) {
+            case 1: case 2: return generateLevel1_2Question(level, rng);
+            case 3: case 4: return generateLevel3_4Question(level, rng);
+            case 5: case 6: return generateLevel5_6Question(level, rng);
+            case 7: case 8: return generateLevel7_8Question(level, rng);
+            default:        return generateLevel1_2Question(level, rng);
+        }
+    }
+
+    private static MathQuestion createFallbackQuestion(int level) {
+        return new MathQuestion(QuestionTemplate.ADD, new int[]{2, 3}, 5, 10, getDifficultyByLevel(level),
+                                new double[]{3, 4, 5, 6}, null);
     }
 
-    private static Question.QuestionDifficulty getDifficultyByLevel(int level) {
+    static Question.QuestionDifficulty getDifficultyByLevel(int level) {
         if (level <= 2) return Question.QuestionDifficulty.EASY;
         if (level <= 4) return Question.QuestionDifficulty.MEDIUM;
         if (level <= 6) return Question.QuestionDifficulty.HARD;
         return Question.QuestionDifficulty.EXPERT;
     }
 
-    private static MathQuestion generateLevel1_2Question(int level) {
+    private static MathQuestion generateLevel1_2Question(int level, RandomSource rng) {
         int maxNum = (level == 1) ? 10 : 20;
-        int a = (int)(Math.random() * maxNum) + 1;
-        int b = (int)(Math.random() * maxNum) + 1;
-        String question;
+        int a = rng.nextInt(maxNum) + 1;
+        int b = rng.nextInt(maxNum) + 1;
+        QuestionTemplate template;
         double answer;
 
-        if (Math.random() > 0.5) {
-            question = a + " + " + b + " = ?";
+        if (rng.nextBoolean()) {
+            template = QuestionTemplate.ADD;
             answer   = a + b;
         } else {
             if (a < b) { int tmp = a; a = b; b = tmp; }
-            question = a + " - " + b + " = ?";
+            template = QuestionTemplate.SUBTRACT;
             answer   = a - b;
         }
-        return createQuestionWithOptions(question, answer, level * 10, level);
+        return createQuestionWithOptions(template, new int[]{a, b}, answer, level * 10, level, rng);
     }
 
-    private static MathQuestion generateLevel3_4Question(int level) {
+    private static MathQuestion generateLevel3_4Question(int level, RandomSource rng) {
         int maxNum = (level == 3) ? 15 : 25;
-        int op = (int)(Math.random() * 4);
-        String question;
+        int op = rng.nextInt(4);
+        QuestionTemplate template;
+        int[] operands;
         double answer;
         int a, b, c;
 
         switch (op) {
             case 0:
-                a = (int)(Math.random() * maxNum) + 1;
-                b = (int)(Math.random() * maxNum) + 1;
-                question = a + " x " + b + " = ?";
+                a = rng.nextInt(maxNum) + 1;
+                b = rng.nextInt(maxNum) + 1;
+                template = QuestionTemplate.MULTIPLY;
+                operands = new int[]{a, b};
                 answer   = a * b;
                 break;
             case 1:
-                b = (int)(Math.random() * maxNum) + 1;
-                a = b * ((int)(Math.random() * maxNum) + 1);
-                question = a + " / " + b + " = ?";
+                b = rng.nextInt(maxNum) + 1;
+                a = b * (rng.nextInt(maxNum) + 1);
+                template = QuestionTemplate.DIVIDE;
+                operands = new int[]{a, b};
                 answer   = a / b;
                 break;
             case 2: 
-                a = (int)(Math.random() * (maxNum / 2)) + 1;
-                b = (int)(Math.random() * (maxNum / 2)) + 1;
-                c = (int)(Math.random() * (maxNum / 2)) + 1;
-                question = a + " x " + b + " x " + c + " = ?";
+                a = rng.nextInt(maxNum / 2) + 1;
+                b = rng.nextInt(maxNum / 2) + 1;
+                c = rng.nextInt(maxNum / 2) + 1;
+                template = QuestionTemplate.MULTIPLY3;
+                operands = new int[]{a, b, c};
                 answer   = a * b * c;
                 break;
             default:
-                b = (int)(Math.random() * maxNum) + 1;
-                a = (int)(Math.random() * (maxNum * 3)) + maxNum;
-                while (a % b == 0) a = (int)(Math.random() * (maxNum * 3)) + maxNum;
-                question = a + " / " + b + " = ?";
+                b = rng.nextInt(maxNum - 1) + 2;
+                a = rng.nextInt(maxNum * 3) + maxNum;
+                while (a % b == 0) a = rng.nextInt(maxNum * 3) + maxNum;
+                template = QuestionTemplate.DIVIDE;
+                operands = new int[]{a, b};
                 answer   = a / (double) b;
                 break;
         }
-        return createQuestionWithOptions(question, answer, level * 20, level);
+        return createQuestionWithOptions(template, operands, answer, level * 20, level, rng);
     }
 
-    private static MathQuestion generateLevel5_6Question(int level) {
-        int op = (int)(Math.random() * 7);
-        String question;
+    private static MathQuestion generateLevel5_6Question(int level, RandomSource rng) {
+        int op = rng.nextInt(7);
+        QuestionTemplate template;
+        int[] operands;
         double answer;
         int a, b, c;
 
         switch (op) {
             case 0:
-                a = (int)(Math.random() * 20) + 1;
-                b = (int)(Math.random() * 10) + 1;
-                c = (int)(Math.random() * 5)  + 1;
-                question = "(" + a + " x " + b + ") / " + c + " = ?";
+                a = rng.nextInt(20) + 1;
+                b = rng.nextInt(10) + 1;
+                c = rng.nextInt(5)  + 1;
+                template = QuestionTemplate.MULTIPLY_DIVIDE;
+                operands = new int[]{a, b, c};
                 answer   = (a * b) / (double) c;
                 break;
             case 1: 
-                int pct = (int)(Math.random() * 90) + 10;
-                a = (int)(Math.random() * 200) + 50;
-                question = "Berapa " + pct + "% dari " + a + "?";
+                int pct = rng.nextInt(90) + 10;
+                a = rng.nextInt(200) + 50;
+                template = QuestionTemplate.PERCENT;
+                operands = new int[]{pct, a};
                 answer   = a * pct / 100.0;
                 break;
             case 2:
-                a = (int)(Math.random() * 20) + 1;
-                b = (int)(Math.random() * 15) + 1;
-                question = "Jika x = " + a + ", maka 2x + " + b + " = ?";
+                a = rng.nextInt(20) + 1;
+                b = rng.nextInt(15) + 1;
+                template = QuestionTemplate.SUBSTITUTION;
+                operands = new int[]{a, b};
                 answer   = 2 * a + b;
                 break;
             case 3:
-                a = (int)(Math.random() * 15) + 5;
-                question = "Akar dari " + (a * a) + " = ?";
+                a = rng.nextInt(15) + 5;
+                template = QuestionTemplate.SQUARE_ROOT;
+                operands = new int[]{a};
                 answer   = a;
                 break;
             case 4:
-                int num  = (int)(Math.random() * 8) + 2;
-                int den  = (int)(Math.random() * 8) + 3;
-                a = (int)(Math.random() * 20) + 10;
-                question = a + " x " + num + "/" + den + " = ?";
+                int num  = rng.nextInt(8) + 2;
+                int den  = rng.nextInt(8) + 3;
+                a = rng.nextInt(20) + 10;
+                template = QuestionTemplate.FRACTION_OF;
+                operands = new int[]{a, num, den};
                 answer   = a * num / (double) den;
                 break;
             case 5:
-                a = (int)(Math.random() * 50) + 10;
-                b = (int)(Math.random() * 50) + 10;
-                c = (int)(Math.random() * 50) + 10;
-                question = "Rata-rata dari " + a + ", " + b + ", " + c + " = ?";
+                a = rng.nextInt(50) + 10;
+                b = rng.nextInt(50) + 10;
+                c = rng.nextInt(50) + 10;
+                template = QuestionTemplate.AVERAGE;
+                operands = new int[]{a, b, c};
                 answer   = (a + b + c) / 3.0;
                 break;
             default:
-                a = (int)(Math.random() * 20) + 10;
-                b = (int)(Math.random() * 20) + 10;
-                if (Math.random() > 0.5) {
-                    question = a + " - " + (a + b) + " = ?"; answer = -b;
+                a = rng.nextInt(20) + 10;
+                b = rng.nextInt(20) + 10;
+                operands = new int[]{a, b};
+                if (rng.nextBoolean()) {
+                    template = QuestionTemplate.NEGATIVE_SUBTRACT; answer = -b;
                 } else {
-                    question = "-" + a + " + " + b + " = ?"; answer = b - a;
+                    template = QuestionTemplate.NEGATIVE_ADD; answer = b - a;
                 }
                 break;
         }
-        return createQuestionWithOptions(question, answer, level * 30, level);
+        return createQuestionWithOptions(template, operands, answer, level * 30, level, rng);
     }
 
-    private static MathQuestion generateLevel7_8Question(int level) {
-        int op = (int)(Math.random() * 8);
-        String question  = "";
+    private static MathQuestion generateLevel7_8Question(int level, RandomSource rng) {
+        int op = rng.nextInt(8);
+        QuestionTemplate template;
+        int[] operands;
         double answer    = 0;
-        MathQuestion directResult = null;
         int a = 0, b = 0, c = 0;
 
         switch (op) {
             case 0:
-                a = (int)(Math.random() * 10) + 1;
-                b = (int)(Math.random() * 20) + 1;
-                c = (int)(Math.random() * 10) + 1;
-                question = "x^2 + " + a + "x + " + c + " = 0, berapa hasil diskriminannya?";
+                a = rng.nextInt(10) + 1;
+                b = rng.nextInt(20) + 1;
+                c = rng.nextInt(10) + 1;
+                template = QuestionTemplate.DISCRIMINANT;
+                operands = new int[]{a, c};
                 answer   = (double)(a * a) - 4.0 * c;
                 break;
 
             case 1:
-                int radius = (int)(Math.random() * 15) + 5;
-                question = "Luas lingkaran jari-jari " + radius + "? (pi=3.14)";
+                int radius = rng.nextInt(15) + 5;
+                template = QuestionTemplate.CIRCLE_AREA;
+                operands = new int[]{radius};
                 answer   = 3.14 * radius * radius;
                 break;
 
             case 2:
-                int panjang = (int)(Math.random() * 20) + 5;
-                int lebar   = (int)(Math.random() * 15) + 3;
-                int tinggi  = (int)(Math.random() * 10) + 2;
-                question = "Volume balok " + panjang + "x" + lebar + "x" + tinggi + " = ?";
+                int panjang = rng.nextInt(20) + 5;
+                int lebar   = rng.nextInt(15) + 3;
+                int tinggi  = rng.nextInt(10) + 2;
+                template = QuestionTemplate.BOX_VOLUME;
+                operands = new int[]{panjang, lebar, tinggi};
                 answer   = (double) panjang * lebar * tinggi;
                 break;
 
             case 3:
                 int[] angles = {30, 45, 60};
-                int angle = angles[(int)(Math.random() * 3)];
-                int fn    = (int)(Math.random() * 3); 
+                int angle = angles[rng.nextInt(3)];
+                int fn    = rng.nextInt(3); 
                 if (fn == 0) {
-                    if (angle == 30) { question = "sin 30 = ?"; answer = 0.5; }
-                    else if (angle == 45) { question = "sin 45 = ?"; answer = Math.sqrt(2)/2; }
-                    else { question = "sin 60 = ?"; answer = Math.sqrt(3)/2; }
+                    if (angle == 30) answer = 0.5;
+                    else if (angle == 45) answer = Math.sqrt(2)/2;
+                    else answer = Math.sqrt(3)/2;
                 } else if (fn == 1) {
-                    if (angle == 30) { question = "cos 30 = ?"; answer = Math.sqrt(3)/2; }
-                    else if (angle == 45) { question = "cos 45 = ?"; answer = Math.sqrt(2)/2; }
-                    else { question = "cos 60 = ?"; answer = 0.5; }
+                    if (angle == 30) answer = Math.sqrt(3)/2;
+                    else if (angle == 45) answer = Math.sqrt(2)/2;
+                    else answer = 0.5;
                 } else {
-                    if (angle == 30) { question = "tan 30 = ?"; answer = Math.sqrt(3)/3; }
-                    else if (angle == 45) { question = "tan 45 = ?"; answer = 1.0; }
-                    else { question = "tan 60 = ?"; answer = Math.sqrt(3); }
+                    if (angle == 30) answer = Math.sqrt(3)/3;
+                    else if (angle == 45) answer = 1.0;
+                    else answer = Math.sqrt(3);
                 }
+                template = QuestionTemplate.TRIGONOMETRY;
+                operands = new int[]{fn, angle};
                 break;
 
             case 4:
-                int expN  = (int)(Math.random() * 4) + 1;
-                int value = (int) Math.pow(10, expN);
-                question = "log " + value + " = ?";
-                answer   = Math.log10(value);
+                int expN  = rng.nextInt(4) + 1;
+                template = QuestionTemplate.LOGARITHM;
+                operands = new int[]{expN};
+                answer   = expN;
                 break;
 
             case 5: 
-                a = (int)(Math.random() * 10) + 1;
-                b = (int)(Math.random() * 10) + 1;
-                int result = a * 2 + b * 3;
-                question = "Jika 2x + 3y = " + result + " dan x = " + a + ", maka y = ?";
+                a = rng.nextInt(10) + 1;
+                b = rng.nextInt(10) + 1;
+                template = QuestionTemplate.LINEAR_SYSTEM;
+                operands = new int[]{a, b};
                 answer   = b;
                 break;
 
             case 6: 
-                int favorable = (int)(Math.random() * 5) + 1;
-                int total     = favorable + (int)(Math.random() * 5) + 2;
-                question = "Peluang munculnya " + favorable + " dari " + total + " kemungkinan = ?";
-                answer   = favorable / (double) total;
-
-                String correctFrac = favorable + "/" + total;
-                Set<String> fracSet = new LinkedHashSet<>();
-                fracSet.add(correctFrac);
-
-                for (int fav2 = 1; fav2 < total && fracSet.size() < 4; fav2++) {
-                    if (fav2 != favorable) fracSet.add(fav2 + "/" + total);
-                }
-                for (int delta = -2; delta <= 2 && fracSet.size() < 4; delta++) {
-                    int altTotal = total + delta;
-                    if (altTotal <= 1 || altTotal == total) continue;
-                    for (int fav3 = 1; fav3 < altTotal && fracSet.size() < 4; fav3++) {
-                        if (Math.abs((double) fav3 / altTotal - (double) favorable / total) > 0.01)
-                            fracSet.add(fav3 + "/" + altTotal);
-                    }
-                }
-                while (fracSet.size() < 4) fracSet.add(fracSet.size() + "/" + (total + 1));
-
-                String[] probOpts = fracSet.toArray(new String[4]);
-                shuffleArray(probOpts);
-                directResult = new MathQuestion(question, answer, level * 50,
-                        getDifficultyByLevel(level), probOpts);
-                break;
+                int favorable = rng.nextInt(5) + 1;
+                int total     = favorable + rng.nextInt(5) + 2;
+                return createProbabilityQuestion(favorable, total, level * 50, level, rng);
 
             default:
-                a = (int)(Math.random() * 25) + 5;
-                b = (int)(Math.random() * 20) + 5;
-                c = (int)(Math.random() * 10) + 2;
-                int d = (int)(Math.random() * 5) + 1;
-                question = "(" + a + "^2 - " + b + ") / " + c + " + " + d + " = ?";
+                a = rng.nextInt(25) + 5;
+                b = rng.nextInt(20) + 5;
+                c = rng.nextInt(10) + 2;
+                int d = rng.nextInt(5) + 1;
+                template = QuestionTemplate.MIXED;
+                operands = new int[]{a, b, c, d};
                 answer   = (a * a - b) / (double) c + d;
                 break;
         }
 
-        if (directResult != null) return directResult;
-        return createQuestionWithOptions(question, answer, level * 50, level);
+        return createQuestionWithOptions(template, operands, answer, level * 50, level, rng);
     }
 
-    private static MathQuestion createQuestionWithOptions(String question, double answer,
-                                                          int points, int level) {
-        Question.QuestionDifficulty difficulty = getDifficultyByLevel(level);
-
-        if (question.contains("sin") || question.contains("cos") || question.contains("tan")) {
-            String[] trigOptions = {"0", "1/2", "akar2/2", "akar3/2", "akar3/3", "akar3", "1"};
-            String correctStr = formatTrigAnswer(answer);
-
-            List<String> opts = new ArrayList<>(Arrays.asList(trigOptions));
-            opts.removeIf(o -> o.equals(correctStr));
-            Collections.shuffle(opts);
+    private static MathQuestion createProbabilityQuestion(int favorable, int total,
+                                                          int points, int level, RandomSource rng) {
+        int[] nums = new int[4];
+        int[] dens = new int[4];
+        nums[0] = favorable; dens[0] = total;
+        int n = 1;
 
-            List<String> sel = new ArrayList<>();
-            sel.add(correctStr);
-            sel.addAll(opts.subList(0, Math.min(3, opts.size())));
-            while (sel.size() < 4) sel.add("?");
-
-            String[] options = sel.toArray(new String[0]);
-            shuffleArray(options);
-            return new MathQuestion(question, answer, points, difficulty, options);
+        for (int fav2 = 1; fav2 < total && n < 4; fav2++) {
+            if (fav2 != favorable) n = addFraction(nums, dens, n, fav2, total);
         }
-
-        Set<String> optionSet = new LinkedHashSet<>();
-        String correctStr = formatDecimalAnswer(answer);
-        optionSet.add(correctStr);
-
-        boolean isIntegerAnswer = (answer == Math.floor(answer) && !Double.isInfinite(answer));
-
-        int attempts = 0;
-        while (optionSet.size() < 4 && attempts < 30) {
-            attempts++;
-            double wrong = generateWrongAnswer(answer, level, question);
-            if (isIntegerAnswer) wrong = Math.round(wrong);
-            String wrongStr = formatDecimalAnswer(wrong);
-            if (!optionSet.contains(wrongStr) && isValidOption(wrongStr)) {
-                optionSet.add(wrongStr);
+        for (int delta = -2; delta <= 2 && n < 4; delta++) {
+            int altTotal = total + delta;
+            if (altTotal <= 1 || altTotal == total) continue;
+            for (int fav3 = 1; fav3 < altTotal && n < 4; fav3++) {
+                if (Math.abs((double) fav3 / altTotal - (double) favorable / total) > 0.01)
+                    n = addFraction(nums, dens, n, fav3, altTotal);
             }
         }
+        while (n < 4) n = addFraction(nums, dens, n, n, total + 1);
 
-        if (optionSet.size() < 4) addDefaultOptions(optionSet, correctStr, answer);
-
-        List<String> optList = new ArrayList<>(optionSet);
-        while (optList.size() < 4) optList.add("?");
-
-        String[] options = optList.toArray(new String[4]);
-        shuffleArray(options);
-        return new MathQuestion(question, answer, points, difficulty, options);
-    }
-
-    private static String formatTrigAnswer(double value) {
-        if (Math.abs(value - 0.5)                 < 0.001) return "1/2";
-        if (Math.abs(value - (Math.sqrt(2) / 2))  < 0.001) return "akar2/2";
-        if (Math.abs(value - (Math.sqrt(3) / 2))  < 0.001) return "akar3/2";
-        if (Math.abs(value - (Math.sqrt(3) / 3))  < 0.001) return "akar3/3";
-        if (Math.abs(value - Math.sqrt(3))         < 0.001) return "akar3";
-        if (Math.abs(value - 1.0)                  < 0.001) return "1";
-        if (Math.abs(value - 0.0)                  < 0.001) return "0";
-        return formatDecimalAnswer(value);
-    }
-
-    private static String formatDecimalAnswer(double value) {
-        if (Double.isInfinite(value)) return "tak terhingga";
-        if (Double.isNaN(value))      return "undefined";
-        if (value == Math.floor(value) && !Double.isInfinite(value))
-            return String.valueOf((long) value);
-
-        BigDecimal bd = BigDecimal.valueOf(value).stripTrailingZeros();
-        if (bd.scale() > 2) bd = bd.setScale(2, java.math.RoundingMode.DOWN);
-        return bd.toPlainString().replace('.', ',');
+        double[] options = new double[4];
+        for (int i = 0; i < 4; i++) options[i] = nums[i] / (double) dens[i];
+        shuffleOptions(options, dens, rng);
+        return new MathQuestion(QuestionTemplate.PROBABILITY, new int[]{favorable, total},
+                                favorable / (double) total, points, getDifficultyByLevel(level), options, dens);
     }
 
-    private static double generateWrongAnswer(double correct, int level, String question) {
-        double wrong;
-        double minDiff = Math.max(0.5, Math.abs(correct) * 0.05);
-
-        if (level <= 2) {
-            int off = (int)(Math.random() * 3) + 1;
-            wrong = correct + (Math.random() > 0.5 ? off : -off);
-
-        } else if (level <= 4) {
-            if (question.contains("x") && !question.contains("/")) {
-                int off = (int)(Math.random() * 9) + 2;
-                wrong = correct + (Math.random() > 0.5 ? off : -off);
-                if (wrong <= 0) wrong = correct + off;
-            } else if (question.contains("/")) {
-                double pct = 0.10 + Math.random() * 0.10;
-                wrong = correct * (1 + (Math.random() > 0.5 ? pct : -pct));
-            } else {
-                wrong = correct * (0.9 + Math.random() * 0.2);
-            }
-
-        } else if (level <= 6) {
-            if (question.contains("Akar")) {
-                wrong = correct + (Math.random() * 6 - 3);
-            } else if (question.contains("%")) {
-                double off = Math.max(2.0, Math.abs(correct) * 0.12) * (0.8 + Math.random() * 0.4);
-                wrong = correct + (Math.random() > 0.5 ? off : -off);
-            } else if (question.toLowerCase().contains("rata-rata")) {
-                wrong = correct + (Math.random() * 10 - 5);
-            } else {
-                wrong = correct + (Math.random() * 12 - 6);
-            }
-
-        } else {
-            if (question.contains("sin") || question.contains("cos") || question.contains("tan")) {
-                double[] tv = {0, 0.5, 0.7071, 0.8660, 1, 0.5774, 1.7321};
-                wrong = tv[(int)(Math.random() * tv.length)];
-            } else if (question.toLowerCase().contains("volume")) {
-                wrong = correct * (0.88 + Math.random() * 0.24);
-            } else if (question.toLowerCase().contains("log")) {
-                int off = (int)(Math.random() * 3) + 1;
-                wrong = correct + (Math.random() > 0.5 ? off : -off);
-            } else {
-                boolean isSmallInt = (correct == Math.floor(correct)) && (Math.abs(correct) <= 20);
-                if (isSmallInt) {
-                    int off = (int)(Math.random() * 4) + 1;
-                    wrong = correct + (Math.random() > 0.5 ? off : -off);
-                } else {
-                    double pct = 0.10 + Math.random() * 0.15;
-                    wrong = correct * (1 + (Math.random() > 0.5 ? pct : -pct));
-                    if (wrong <= 0 && correct > 0) wrong = correct * (1 + pct);
-                }
-            }
-        }
-
-        int retries = 0;
-        while (Math.abs(wrong - correct) < minDiff && retries < 10) {
-            if (level <= 2) {
-                int off = (int)(Math.random() * 3) + 1;
-                wrong = correct + (Math.random() > 0.5 ? off : -off);
-            } else {
-                wrong = correct + (Math.random() * 14 - 7);
-            }
-            retries++;
+    private static int addFraction(int[] nums, int[] dens, int n, int num, int den) {
+        for (int i = 0; i < n; i++) {
+            if (nums[i] == num && dens[i] == den) return n;
         }
-        if (Math.abs(wrong - correct) < minDiff)
-            wrong = correct + minDiff * (Math.random() > 0.5 ? 1 : -1);
-        if (Double.isNaN(wrong) || Double.isInfinite(wrong))
-            wrong = correct + minDiff;
-
-        return wrong;
+        nums[n] = num; dens[n] = den;
+        return n + 1;
     }
 
-    private static boolean isValidOption(String option) {
-        if (option == null || option.isEmpty() || option.length() > 20) return false;
-        if (option.contains("/")) return true; 
-        if (option.startsWith("akar")) return true; 
-        try {
-            if (!option.equals("tak terhingga") && !option.equals("undefined") && !option.equals("?"))
-                Double.parseDouble(option.replace(",", "."));
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+    static MathQuestion createQuestionWithOptions(QuestionTemplate template, int[] operands, double answer,
+                                                  int points, int level, RandomSource rng) {
+        double[] options = new double[4];
+        options[0] = answer;
+        DistractorStrategy.forTemplate(template).fill(answer, options, rng);
+
+        shuffleOptions(options, null, rng);
+        return new MathQuestion(template, operands, answer, points, getDifficultyByLevel(level), options, null);
     }
 
-    private static void addDefaultOptions(Set<String> optionSet, String correctStr, double correctVal) {
-        int[] offsets = {1, -1, 2, -2, 3, -3, 5, -5, 10, -10};
-        for (int off : offsets) {
-            if (optionSet.size() >= 4) break;
-            String candidate = formatDecimalAnswer(correctVal + off);
-            if (!optionSet.contains(candidate)) optionSet.add(candidate);
-        }
-        while (optionSet.size() < 4) {
-            String rnd = String.valueOf((int)(Math.random() * 100) + 1);
-            if (!optionSet.contains(rnd)) optionSet.add(rnd);
-        }
+    static String formatDecimalAnswer(double value) {
+        return AnswerFormat.formatDecimal(value);
     }
 
-    private static void shuffleArray(String[] array) {
-        Random rng = new Random();
-        for (int i = array.length - 1; i > 0; i--) {
+    private static void shuffleOptions(double[] options, int[] denominators, RandomSource rng) {
+        for (int i = options.length - 1; i > 0; i--) {
             int j = rng.nextInt(i + 1);
-            String tmp = array[j];
-            array[j]   = array[i];
-            array[i]   = tmp;
+            double tmp = options[j];
+            options[j] = options[i];
+            options[i] = tmp;
+            if (denominators != null) {
+                int d = denominators[j];
+                denominators[j] = denominators[i];
+                denominators[i] = d;
+            }
         }
     }
 }
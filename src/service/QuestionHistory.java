@@ -0,0 +1,83 @@
+package service;
+
+import java.util.Arrays;
+
+// Not thread-safe: QuestionGenerator guards its history with its own lock.
+public class QuestionHistory {
+    private final long[] window;
+    private final long[] table;
+    private final int mask;
+    private int next;
+    private int size;
+
+    public QuestionHistory(int windowSize) {
+        if (windowSize <= 0) throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+        window = new long[windowSize];
+        int capacity = Integer.highestOneBit(Math.max(8, windowSize * 2) - 1) << 1;
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public boolean contains(long fingerprint) {
+        long key = normalize(fingerprint);
+        for (int i = home(key); table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == key) return true;
+        }
+        return false;
+    }
+
+    public boolean add(long fingerprint) {
+        long key = normalize(fingerprint);
+        if (contains(key)) return false;
+
+        if (size == window.length) {
+            remove(window[next]);
+        } else {
+            size++;
+        }
+        window[next] = key;
+        next = (next + 1) % window.length;
+
+        int i = home(key);
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = key;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        next = 0;
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public int getWindowSize() { return window.length; }
+
+    private void remove(long key) {
+        int i = home(key);
+        while (table[i] != key) {
+            if (table[i] == 0) return;
+            i = (i + 1) & mask;
+        }
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (table[j] == 0) break;
+            int k = home(table[j]);
+            boolean stays = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+            if (stays) continue;
+            table[i] = table[j];
+            i = j;
+        }
+        table[i] = 0;
+    }
+
+    private int home(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private static long normalize(long fingerprint) {
+        return (fingerprint == 0) ? 1 : fingerprint;
+    }
+}
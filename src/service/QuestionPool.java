@@ -0,0 +1,121 @@
+package service;
+
+import model.MathQuestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class QuestionPool implements QuestionSource {
+    private static final int MAX_LEVEL = 8;
+
+    private final QuestionGenerator generator;
+    private final int depth;
+    private final int lowWatermark;
+    private final List<Queue<MathQuestion>> buffers = new ArrayList<>();
+    private final AtomicInteger[] sizes = new AtomicInteger[MAX_LEVEL];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Thread producer;
+
+    private volatile int activeLevel = 1;
+    private volatile boolean running = true;
+
+    public QuestionPool(QuestionGenerator generator) {
+        this(generator,
+             Integer.getInteger("mathquiz.pool.depth", 8),
+             Integer.getInteger("mathquiz.pool.lowWatermark", 3));
+    }
+
+    public QuestionPool(QuestionGenerator generator, int depth, int lowWatermark) {
+        if (depth <= 0) throw new IllegalArgumentException("depth must be positive: " + depth);
+        if (lowWatermark < 0 || lowWatermark >= depth)
+            throw new IllegalArgumentException("lowWatermark must be in [0, depth): " + lowWatermark);
+
+        this.generator = generator;
+        this.depth = depth;
+        this.lowWatermark = lowWatermark;
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            buffers.add(new ConcurrentLinkedQueue<>());
+            sizes[i] = new AtomicInteger();
+        }
+
+        producer = new Thread(this::produce, "question-pool");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    @Override
+    public MathQuestion nextQuestion(int level) {
+        return take(level);
+    }
+
+    public MathQuestion take(int level) {
+        int idx = index(level);
+        if (activeLevel != idx + 1) {
+            activeLevel = idx + 1;
+            LockSupport.unpark(producer);
+        }
+
+        MathQuestion question = buffers.get(idx).poll();
+        if (question == null) {
+            misses.increment();
+            LockSupport.unpark(producer);
+            return generator.generateQuestion(level);
+        }
+
+        hits.increment();
+        if (sizes[idx].decrementAndGet() <= lowWatermark) LockSupport.unpark(producer);
+        return question;
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(producer);
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public int getDepth() { return depth; }
+    public int getLowWatermark() { return lowWatermark; }
+
+    public int getBuffered(int level) {
+        return sizes[index(level)].get();
+    }
+
+    private void produce() {
+        while (running) {
+            int level = activeLevel;
+            boolean produced = refill(level);
+            if (level < MAX_LEVEL) produced |= refill(level + 1);
+            if (!produced) LockSupport.park(this);
+        }
+    }
+
+    private boolean refill(int level) {
+        int idx = index(level);
+        if (sizes[idx].get() > lowWatermark) return false;
+
+        boolean produced = false;
+        while (running && sizes[idx].get() < depth && isWanted(level)) {
+            MathQuestion question = generator.generateQuestion(level);
+            buffers.get(idx).offer(question);
+            sizes[idx].incrementAndGet();
+            produced = true;
+        }
+        return produced;
+    }
+
+    private boolean isWanted(int level) {
+        int active = activeLevel;
+        return level == active || level == active + 1;
+    }
+
+    private static int index(int level) {
+        return Math.max(1, Math.min(level, MAX_LEVEL)) - 1;
+    }
+}
@@ -0,0 +1,7 @@
+package service;
+
+import model.MathQuestion;
+
+public interface QuestionSource {
+    MathQuestion nextQuestion(int level);
+}
@@ -0,0 +1,48 @@
+package service;
+
+import java.util.SplittableRandom;
+
+// Not thread-safe: give each thread its own instance (split() or current()).
+public class RandomSource {
+    private static final SplittableRandom ROOT = new SplittableRandom();
+    private static final ThreadLocal<RandomSource> CURRENT =
+            ThreadLocal.withInitial(() -> new RandomSource(splitRoot()));
+
+    private final SplittableRandom random;
+
+    public RandomSource(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private RandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public static RandomSource current() {
+        return CURRENT.get();
+    }
+
+    private static synchronized SplittableRandom splitRoot() {
+        return ROOT.split();
+    }
+
+    public RandomSource split() {
+        return new RandomSource(random.split());
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    public long nextLong() {
+        return random.nextLong();
+    }
+}
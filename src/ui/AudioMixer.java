@@ -0,0 +1,199 @@
+package ui;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Software mixer that owns the game's only audio line. play() hands an 8-bit PCM buffer
+// to the "audio-mixer" thread through a bounded lock-free queue; the thread starts a
+// voice for it and mixes every active voice into one fixed-size period at a time,
+// written to a 16-bit SourceDataLine. The blocking write paces the loop, so latency is
+// at most the line buffer (bufferPeriods * periodFrames). Nothing is allocated after
+// construction. When all voices are busy the one closest to its end is replaced; when
+// none are playing the thread parks until the next play().
+public class AudioMixer implements AutoCloseable {
+    public static final float SAMPLE_RATE = 44100f;
+    // Format of the buffers passed to play().
+    public static final AudioFormat SOURCE_FORMAT = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
+    static final AudioFormat LINE_FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+
+    private static final int QUEUE_CAPACITY = 64;
+
+    private final SourceDataLine line;
+    private final int periodFrames;
+    private final int bufferPeriods;
+    private final int[] accumulator;
+    private final byte[] period;
+    private final Thread thread;
+
+    // Voices, owned by the mixer thread.
+    private final byte[][] voiceData;
+    private final int[] voicePosition;
+
+    // Play queue: producers claim a slot by CAS on tail and publish it through the slot's sequence.
+    private final byte[][] queue = new byte[QUEUE_CAPACITY][];
+    private final AtomicLongArray sequences = new AtomicLongArray(QUEUE_CAPACITY);
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long head;
+
+    private volatile boolean closed;
+
+    public AudioMixer() throws LineUnavailableException {
+        this(AudioSystem.getSourceDataLine(LINE_FORMAT), Integer.getInteger("mathquiz.audio.periodFrames", 256),
+             Integer.getInteger("mathquiz.audio.bufferPeriods", 4), Integer.getInteger("mathquiz.audio.voices", 8));
+    }
+
+    // A null line runs the mixer without output; mixPeriod() can then be driven directly.
+    AudioMixer(SourceDataLine line, int periodFrames, int bufferPeriods, int voices) throws LineUnavailableException {
+        if (periodFrames <= 0) throw new IllegalArgumentException("periodFrames must be positive: " + periodFrames);
+        if (bufferPeriods < 2) throw new IllegalArgumentException("bufferPeriods must be >= 2: " + bufferPeriods);
+        if (voices <= 0) throw new IllegalArgumentException("voices must be positive: " + voices);
+        this.line = line;
+        this.periodFrames = periodFrames;
+        this.bufferPeriods = bufferPeriods;
+        this.accumulator = new int[periodFrames];
+        this.period = new byte[periodFrames * 2];
+        this.voiceData = new byte[voices][];
+        this.voicePosition = new int[voices];
+        for (int i = 0; i < QUEUE_CAPACITY; i++) sequences.set(i, i);
+
+        if (line != null) line.open(LINE_FORMAT, period.length * bufferPeriods);
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+    }
+
+    public void start() {
+        if (line != null) line.start();
+        thread.start();
+    }
+
+    // Safe from any thread. Returns false if the queue was full and the sound was dropped.
+    public boolean play(byte[] pcm) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long sequence = sequences.get((int) position & (QUEUE_CAPACITY - 1));
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (sequence < position) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        int index = (int) position & (QUEUE_CAPACITY - 1);
+        queue[index] = pcm;
+        sequences.setRelease(index, position + 1);
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getLatencyFrames() {
+        return periodFrames * bufferPeriods;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (line != null) {
+            line.stop();
+            line.close();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            if (mixPeriod() == 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            if (line != null) line.write(period, 0, period.length);
+        }
+    }
+
+    // Starts queued sounds, then mixes one period into the output buffer.
+    // Returns the number of voices that were playing in it.
+    int mixPeriod() {
+        drainQueue();
+
+        int[] acc = accumulator;
+        Arrays.fill(acc, 0);
+        int playing = 0;
+        for (int v = 0; v < voiceData.length; v++) {
+            byte[] data = voiceData[v];
+            if (data == null) continue;
+            int pos = voicePosition[v];
+            int n = Math.min(periodFrames, data.length - pos);
+            for (int i = 0; i < n; i++) acc[i] += data[pos + i];
+            pos += n;
+            if (pos >= data.length) {
+                voiceData[v] = null;
+            } else {
+                voicePosition[v] = pos;
+            }
+            playing++;
+        }
+        if (playing == 0) return 0;
+
+        byte[] out = period;
+        for (int i = 0, j = 0; i < periodFrames; i++, j += 2) {
+            int s = acc[i] << 8;
+            if (s > Short.MAX_VALUE) s = Short.MAX_VALUE;
+            else if (s < Short.MIN_VALUE) s = Short.MIN_VALUE;
+            out[j] = (byte) s;
+            out[j + 1] = (byte) (s >> 8);
+        }
+        return playing;
+    }
+
+    byte[] period() {
+        return period;
+    }
+
+    private void drainQueue() {
+        while (true) {
+            int index = (int) head & (QUEUE_CAPACITY - 1);
+            if (sequences.getAcquire(index) != head + 1) return;
+            byte[] pcm = queue[index];
+            queue[index] = null;
+            sequences.setRelease(index, head + QUEUE_CAPACITY);
+            head++;
+            if (pcm.length > 0) startVoice(pcm);
+        }
+    }
+
+    private void startVoice(byte[] pcm) {
+        int target = 0;
+        int leastRemaining = Integer.MAX_VALUE;
+        for (int v = 0; v < voiceData.length; v++) {
+            if (voiceData[v] == null) {
+                target = v;
+                break;
+            }
+            int remaining = voiceData[v].length - voicePosition[v];
+            if (remaining < leastRemaining) {
+                leastRemaining = remaining;
+                target = v;
+            }
+        }
+        voiceData[target] = pcm;
+        voicePosition[target] = 0;
+    }
+}
@@ -1,27 +1,55 @@
 package ui;
 
+import logging.LogSite;
+import logging.QuizLog;
+import metrics.GameMetrics;
+import service.AnswerLog;
+import service.AnswerOutcome;
+import service.GameEventListener;
 import service.GameService;
+import service.ProfileStore;
+import service.QuestionGenerator;
+import service.QuestionPool;
 import model.MathQuestion;
 import model.Player;
 
 import javax.swing.*;
-import javax.sound.sampled.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.IOException;
 
 public class GameGUI extends JFrame {
+    private static final LogSite SESSION_LOG_FAILED = new LogSite("GameGUI.answerLog", QuizLog.Level.ERROR);
+    private static final LogSite PROFILE_FAILED = new LogSite("GameGUI.profiles", QuizLog.Level.ERROR);
+    
+    private static final Font PROMPT_FONT = Typography.font(Typography.HEADING, Font.BOLD, 16);
+    private static final Font NAME_FIELD_FONT = Typography.font(Typography.TEXT, Font.BOLD, 14);
+    private static final Font TITLE_FONT = Typography.font(Typography.EMOJI, Font.BOLD, 28);
+    private static final Font STAT_ICON_FONT = Typography.font(Typography.EMOJI, Font.PLAIN, 16);
+    private static final Font STAT_TITLE_FONT = Typography.font(Typography.TEXT, Font.BOLD, 12);
+    private static final Font STAT_VALUE_FONT = Typography.font(Typography.TEXT, Font.BOLD, 18);
+    // The sizes the old HTML labels rendered "30px" and "20px" at.
+    private static final Font QUESTION_FONT = Typography.font(Typography.HEADING, Font.BOLD, 39);
+    private static final Font OPTION_FONT = Typography.font(Typography.HEADING, Font.BOLD, 26);
+    private static final Font FEEDBACK_EMOJI_FONT = Typography.font(Typography.EMOJI, Font.PLAIN, 56);
+    private static final Font FEEDBACK_TEXT_FONT = Typography.font(Typography.EMOJI, Font.PLAIN, 14);
+    private static final Font DIALOG_TITLE_FONT = Typography.font(Typography.HEADING, Font.BOLD, 28);
+    private static final Font GAME_OVER_EMOJI_FONT = Typography.font(Typography.EMOJI, Font.PLAIN, 64);
+    private static final Font DIALOG_TEXT_FONT = Typography.font(Typography.HEADING, Font.PLAIN, 14);
+    private static final Font TROPHY_FONT = Typography.font(Typography.EMOJI, Font.PLAIN, 72);
+    private static final Font METRICS_FONT = Typography.font(Typography.MONO, Font.PLAIN, 12);
+    
     private GameService gameService;
+    private AnswerLog answerLog;
+    private ProfileStore profiles;
+    private final SoundBank sounds = new SoundBank();
     private JumpscarePanel jumpscarePanel;
     private CardLayout cardLayout;
     private JPanel mainPanel;
     
-    private JLabel questionLabel;
+    private QuizText questionLabel;
     private JButton[] optionButtons;
     private JPanel scoreLabel;
     private JPanel levelLabel;
@@ -36,18 +64,34 @@ public class GameGUI extends JFrame {
     private final Color BACKGROUND_COLOR = new Color(18, 18, 32);   
     private final Color CARD_COLOR = new Color(30, 30, 50);         
     private final Color TEXT_COLOR = new Color(255, 255, 255);      
-    
-    private Set<String> usedQuestions = new HashSet<>();
-    private String lastQuestion = "";
+    private final Color QUESTION_COLOR = new Color(78, 205, 196);
     
     public GameGUI() {
+        GameMetrics.get().register();
         initializeGame();
         setupUI();
+        Typography.prewarm();
         setupKeyBindings();
         startGame();
     }
     
     private void initializeGame() {
+        sounds.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(sounds::close, "sound-bank-close"));
+        openAnswerLog();
+        openProfileStore();
+        Player saved = (answerLog != null) ? answerLog.getRecovered() : null;
+        if (saved != null) {
+            int resume = JOptionPane.showConfirmDialog(null,
+                String.format("Lanjutkan sesi terakhir %s?\nLevel %d/8, Score %d, Nyawa %d",
+                    saved.getName(), saved.getLevel(), saved.getScore(), saved.getLives()),
+                "Sesi Tersimpan", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+            if (resume == JOptionPane.YES_OPTION) {
+                gameService = createGameService(saved.getName(), saved);
+                return;
+            }
+        }
+        
         String playerName = "User";  
         
         JPanel inputPanel = new JPanel(new BorderLayout());
@@ -55,12 +99,12 @@ public class GameGUI extends JFrame {
         inputPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
         JLabel inputLabel = new JLabel("MASUKKAN NAMA KAMU:");
-        inputLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        inputLabel.setFont(PROMPT_FONT);
         inputLabel.setForeground(TEXT_COLOR);
         inputLabel.setHorizontalAlignment(SwingConstants.CENTER);
         
         JTextField nameField = new JTextField();
-        nameField.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        nameField.setFont(NAME_FIELD_FONT);
         nameField.setBackground(CARD_COLOR);
         nameField.setForeground(TEXT_COLOR);
         nameField.setCaretColor(ACCENT_COLOR);
@@ -68,7 +112,8 @@ public class GameGUI extends JFrame {
             BorderFactory.createLineBorder(PRIMARY_COLOR, 2),
             BorderFactory.createEmptyBorder(10, 10, 10, 10)
         ));
-        nameField.setText(" ");  
+        String lastPlayer = (profiles != null) ? profiles.getLastPlayer() : null;
+        nameField.setText((lastPlayer != null) ? lastPlayer : " ");  
         
         inputPanel.add(inputLabel, BorderLayout.NORTH);
         inputPanel.add(nameField, BorderLayout.CENTER);
@@ -96,7 +141,58 @@ public class GameGUI extends JFrame {
             }
         }
         
-        gameService = new GameService(playerName);
+        gameService = createGameService(playerName);
+    }
+    
+    private GameService createGameService(String playerName) {
+        return createGameService(playerName, null);
+    }
+    
+    private GameService createGameService(String playerName, Player saved) {
+        QuestionGenerator generator = new QuestionGenerator();
+        GameService service = new GameService(playerName, generator, new QuestionPool(generator));
+        if (saved != null) service.resume(saved);
+        
+        if (answerLog != null) answerLog.startSession(service.getPlayer());
+        if (profiles != null) {
+            try {
+                profiles.touch(playerName);
+            } catch (IOException | IllegalArgumentException e) {
+                PROFILE_FAILED.log("Could not save profile", e);
+            }
+        }
+        
+        final GameEventListener sessionLog = answerLog;
+        service.setListener((player, outcome, points) -> {
+            if (sessionLog != null) sessionLog.onAnswer(player, outcome, points);
+            if (profiles != null) profiles.onAnswer(player, outcome, points);
+        });
+        return service;
+    }
+    
+    private void openProfileStore() {
+        try {
+            profiles = new ProfileStore(ProfileStore.defaultDirectory());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    profiles.close();
+                } catch (IOException ignored) {
+                }
+            }, "profile-store-close"));
+        } catch (IOException e) {
+            PROFILE_FAILED.log("Profiles will not be saved", e);
+            profiles = null;
+        }
+    }
+    
+    private void openAnswerLog() {
+        try {
+            answerLog = new AnswerLog(AnswerLog.defaultDirectory());
+            Runtime.getRuntime().addShutdownHook(new Thread(answerLog::close, "answer-log-close"));
+        } catch (IOException e) {
+            SESSION_LOG_FAILED.log("Progress will not be saved", e);
+            answerLog = null;
+        }
     }
     
     private void setupUI() {
@@ -137,6 +233,14 @@ public class GameGUI extends JFrame {
             }
         });
         
+        inputMap.put(KeyStroke.getKeyStroke("F9"), "metrics");
+        actionMap.put("metrics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showMetricsDialog();
+            }
+        });
+        
         inputMap.put(KeyStroke.getKeyStroke("ESCAPE"), "exit");
         actionMap.put("exit", new AbstractAction() {
             @Override
@@ -151,13 +255,17 @@ public class GameGUI extends JFrame {
         });
     }
     
+    // Same text as the JMX dump, for players running without a JMX console.
+    private void showMetricsDialog() {
+        JTextArea text = new JTextArea(GameMetrics.get().dump());
+        text.setEditable(false);
+        text.setFont(METRICS_FONT);
+        JOptionPane.showMessageDialog(this, new JScrollPane(text), "Metrics",
+            JOptionPane.PLAIN_MESSAGE);
+    }
+
     private void refreshQuestion() {
-        if (lastQuestion != null && !lastQuestion.isEmpty()) {
-            usedQuestions.remove(lastQuestion);
-        }
-        
         gameService.startNewQuestion();
-        preventDuplicateQuestion();
         updateUI();
         
         JOptionPane.showMessageDialog(this, 
@@ -190,7 +298,7 @@ public class GameGUI extends JFrame {
         headerPanel.setBorder(new EmptyBorder(0, 0, 15, 0));
         
         JLabel titleLabel = new JLabel("🧠 MATH QUIZ CHALLENGE 🧠");
-        titleLabel.setFont(new Font("Segoe UI Emoji", Font.BOLD, 28));
+        titleLabel.setFont(TITLE_FONT);
         titleLabel.setForeground(ACCENT_COLOR);
         titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
         titleLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
@@ -253,11 +361,11 @@ public class GameGUI extends JFrame {
         iconTitlePanel.setBackground(CARD_COLOR);
 
         JLabel iconLabel = new JLabel(icon);
-        iconLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 16));
+        iconLabel.setFont(STAT_ICON_FONT);
         iconLabel.setForeground(ACCENT_COLOR);
 
         JLabel titleLabel = new JLabel(title);
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        titleLabel.setFont(STAT_TITLE_FONT);
         titleLabel.setForeground(new Color(200, 200, 200));
 
         iconTitlePanel.add(iconLabel);
@@ -265,8 +373,8 @@ public class GameGUI extends JFrame {
 
         topPanel.add(iconTitlePanel);
 
-        JLabel valueLabel = new JLabel("<html><div style='text-align: center;'>" + value + "</div></html>");
-        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        JLabel valueLabel = new JLabel(value);
+        valueLabel.setFont(STAT_VALUE_FONT);
         valueLabel.setForeground(TEXT_COLOR);
         valueLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
@@ -314,11 +422,11 @@ public class GameGUI extends JFrame {
         titlePanel.setMaximumSize(new Dimension(150, 25));
         
         JLabel progressIcon = new JLabel("📊");
-        progressIcon.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 16));
+        progressIcon.setFont(STAT_ICON_FONT);
         progressIcon.setForeground(ACCENT_COLOR);
         
         JLabel progressTitle = new JLabel("Progress Level");
-        progressTitle.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        progressTitle.setFont(STAT_TITLE_FONT);
         progressTitle.setForeground(new Color(200, 200, 200));
         
         titlePanel.add(progressIcon);
@@ -327,7 +435,7 @@ public class GameGUI extends JFrame {
         levelProgress = new JProgressBar(0, 100);
         levelProgress.setValue(0);
         levelProgress.setStringPainted(true);
-        levelProgress.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        levelProgress.setFont(STAT_TITLE_FONT);
         levelProgress.setForeground(ACCENT_COLOR);
         levelProgress.setBackground(new Color(50, 50, 70));
         levelProgress.setPreferredSize(new Dimension(140, 25));
@@ -372,9 +480,8 @@ public class GameGUI extends JFrame {
             BorderFactory.createEmptyBorder(30, 30, 30, 30)
         ));
         
-        questionLabel = new JLabel("", JLabel.CENTER);
-        questionLabel.setFont(new Font("Arial", Font.BOLD, 24));
-        questionLabel.setForeground(TEXT_COLOR);
+        questionLabel = new QuizText(QUESTION_FONT, QUESTION_COLOR);
+        questionLabel.setBorder(new EmptyBorder(10, 10, 10, 10));
         
         questionCard.add(questionLabel, BorderLayout.CENTER);
         questionPanel.add(questionCard, BorderLayout.CENTER);
@@ -400,13 +507,11 @@ public class GameGUI extends JFrame {
             final Color baseColor = buttonColors[i];
             
             optionButtons[i] = new RoundedButton("");
-            optionButtons[i].setFont(new Font("Arial", Font.BOLD, 20));
+            optionButtons[i].setFont(OPTION_FONT);
             optionButtons[i].setForeground(TEXT_COLOR);
             optionButtons[i].setBackground(baseColor);
             optionButtons[i].setFocusPainted(false);
-            optionButtons[i].setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20)); 
-            optionButtons[i].setHorizontalAlignment(SwingConstants.CENTER);
-            optionButtons[i].setVerticalAlignment(SwingConstants.CENTER);
+            optionButtons[i].setBorder(BorderFactory.createEmptyBorder(40, 35, 40, 35)); 
             optionButtons[i].addMouseListener(new java.awt.event.MouseAdapter() {
                 public void mouseEntered(java.awt.event.MouseEvent evt) {
                     optionButtons[index].setBackground(baseColor.brighter());
@@ -431,67 +536,24 @@ public class GameGUI extends JFrame {
         return optionsPanel;
     }
     
-    class RoundedButton extends JButton {
-        private int cornerRadius = 25;
-        
-        public RoundedButton(String text) {
-            super(text);
-            setContentAreaFilled(false);
-            setFocusPainted(false);
-            setBorderPainted(false);
-            setHorizontalTextPosition(SwingConstants.CENTER);
-            setVerticalTextPosition(SwingConstants.CENTER);
-        }
-        
-        @Override
-        protected void paintComponent(Graphics g) {
-            Graphics2D g2 = (Graphics2D) g.create();
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            if (getModel().isPressed()) {
-                g2.setColor(getBackground().darker());
-            } else if (getModel().isRollover()) {
-                g2.setColor(getBackground().brighter());
-            } else {
-                g2.setColor(getBackground());
-            }
-            
-            g2.fillRoundRect(0, 0, getWidth(), getHeight(), cornerRadius, cornerRadius);
-            super.paintComponent(g);
-            g2.dispose();
-        }
-        
-        @Override
-        public void setText(String text) {
-            if (!text.startsWith("<html>")) {
-                text = "<html><div style='text-align: center;'>" + text + "</div></html>";
-            }
-            super.setText(text);
-        }
-    }
-    
     private void startGame() {
         gameService.startNewQuestion();
-        preventDuplicateQuestion();
         updateUI();
         setVisible(true);
     }
     
     private void handleAnswer(int selectedOption) {
-        boolean isCorrect = gameService.checkAnswer(selectedOption);
+        MathQuestion answered = gameService.getCurrentQuestion();
+        int points = (answered != null) ? answered.getPoints() : 0;
+        AnswerOutcome outcome = gameService.submitAnswer(selectedOption);
 
-        if (isCorrect) {
-            showCorrectFeedback();
+        if (outcome.isCorrect()) {
+            showCorrectFeedback(points);
             
-            if (gameService.canLevelUp()) {
-                gameService.levelUp();
+            if (outcome == AnswerOutcome.LEVEL_UP) {
                 showLevelUpMessage();
-                usedQuestions.clear();
-                lastQuestion = "";
             }
             
-            gameService.startNewQuestion();
-            preventDuplicateQuestion();
             updateUI();
         } else {
             int remaining = gameService.getPlayer().getLives();
@@ -518,36 +580,7 @@ public class GameGUI extends JFrame {
         }
     }
 
-    private void preventDuplicateQuestion() {
-        MathQuestion currentQuestion = gameService.getCurrentQuestion();
-        if (currentQuestion != null) {
-            String questionText = currentQuestion.getQuestion();
-            
-            if (usedQuestions.contains(questionText) || questionText.equals(lastQuestion)) {
-                int maxAttempts = 5;
-                int attempts = 0;
-                
-                while ((usedQuestions.contains(questionText) || questionText.equals(lastQuestion)) && attempts < maxAttempts) {
-                    gameService.startNewQuestion();
-                    currentQuestion = gameService.getCurrentQuestion();
-                    if (currentQuestion == null) break;
-                    questionText = currentQuestion.getQuestion();
-                    attempts++;
-                }
-            }
-            
-            if (currentQuestion != null) {
-                lastQuestion = questionText;
-                usedQuestions.add(questionText);
-                
-                if (usedQuestions.size() > 50) {
-                    usedQuestions.clear();
-                }
-            }
-        }
-    }
-    
-    private void showCorrectFeedback() {
+    private void showCorrectFeedback(int points) {
         playGoodJobTone();
 
         final JDialog dialog = new JDialog(this);
@@ -562,15 +595,13 @@ public class GameGUI extends JFrame {
         ));
 
         JLabel emojiLabel = new JLabel("🎉", JLabel.CENTER);
-        emojiLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 56));
+        emojiLabel.setFont(FEEDBACK_EMOJI_FONT);
 
         JLabel messageLabel = new JLabel("<html><div style='text-align: center;'>" +
             "<b style='color: #4CAF50; font-size: 22px;'>BENAR! 🎯</b><br>" +
-            "<span style='color: white; font-size: 14px;'>+" + 
-            (gameService.getCurrentQuestion() != null ? gameService.getCurrentQuestion().getPoints() : 0) + 
-            " poin!</span>" +
+            "<span style='color: white; font-size: 14px;'>+" + points + " poin!</span>" +
             "</div></html>", JLabel.CENTER);
-        messageLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 14));
+        messageLabel.setFont(FEEDBACK_TEXT_FONT);
 
         successPanel.add(emojiLabel, BorderLayout.NORTH);
         successPanel.add(messageLabel, BorderLayout.CENTER);
@@ -591,208 +622,28 @@ public class GameGUI extends JFrame {
         t.start();
     }
     
-    private void playSound(byte[] audioData) {
-        try {
-            AudioFormat format = new AudioFormat(44100, 8, 1, true, false);
-            InputStream byteArrayInputStream = new ByteArrayInputStream(audioData);
-            AudioInputStream audioInputStream = new AudioInputStream(byteArrayInputStream, format, 
-                                                                     audioData.length / format.getFrameSize());
-            
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
-            clip.start();
-            
-        } catch (Exception e) {
-            System.err.println("Error playing sound: " + e.getMessage());
-            Toolkit.getDefaultToolkit().beep();
-        }
-    }
-    
-    private byte[] generateSuccessSound() {
-        final float SAMPLE_RATE = 44100f;
-        final int noteMs = 160;
-        final double vol = 0.25;
-        final int freq1 = 880;
-        final int freq2 = 1320;
-
-        int samplesPerNote = (int) (SAMPLE_RATE * noteMs / 1000);
-        byte[] buf = new byte[samplesPerNote * 2];
-
-        for (int n = 0; n < 2; n++) {
-            int freq = (n == 0) ? freq1 : freq2;
-            int base = n * samplesPerNote;
-            for (int i = 0; i < samplesPerNote; i++) {
-                double t = (double) i / SAMPLE_RATE;
-                double angle = 2.0 * Math.PI * freq * t;
-                double env = 1.0;
-                int attackSamples = (int) (SAMPLE_RATE * 0.01);
-                int decaySamples = attackSamples;
-                if (i < attackSamples) env = (double) i / attackSamples;
-                else if (i > samplesPerNote - decaySamples) env = (double) (samplesPerNote - i) / decaySamples;
-                double sample = Math.sin(angle) * vol * env;
-                buf[base + i] = (byte) (sample * 127.0);
-            }
-        }
-        return buf;
-    }
-    
-    private byte[] generateLevelUpSound() {
-        final float SAMPLE_RATE = 44100f;
-        final int noteMs = 120;
-        final double vol = 0.25;
-        final int f1 = 660;
-        final int f2 = 880;
-
-        int samplesPerNote = (int) (SAMPLE_RATE * noteMs / 1000);
-        byte[] buf = new byte[samplesPerNote * 2];
-
-        for (int n = 0; n < 2; n++) {
-            int freq = (n == 0) ? f1 : f2;
-            int base = n * samplesPerNote;
-            for (int i = 0; i < samplesPerNote; i++) {
-                double t = (double) i / SAMPLE_RATE;
-                double angle = 2.0 * Math.PI * freq * t;
-                double env = 1.0;
-                int attack = (int) (SAMPLE_RATE * 0.01);
-                if (i < attack) env = (double) i / attack;
-                buf[base + i] = (byte) (Math.sin(angle) * 127.0 * vol * env);
-            }
-        }
-        return buf;
-    }
-    
-    private byte[] generateGoodJobSound() {
-        final float SAMPLE_RATE = 44100f;
-        final int noteMs = 160;
-        final double vol = 0.45;
-        final int[] freqs = {880, 1108};
-
-        int samplesPerNote = (int) (SAMPLE_RATE * noteMs / 1000);
-        byte[] buf = new byte[samplesPerNote * freqs.length + 4000];
-
-        for (int n = 0; n < freqs.length; n++) {
-            int freq = freqs[n];
-            int base = n * samplesPerNote;
-            for (int i = 0; i < samplesPerNote; i++) {
-                double t = (double) i / SAMPLE_RATE;
-                double angle = 2.0 * Math.PI * freq * t;
-                double sample = Math.sin(angle) + 0.4 * Math.sin(2 * angle);
-                int attack = (int) (SAMPLE_RATE * 0.01);
-                int decay = (int) (SAMPLE_RATE * 0.06);
-                double env = 1.0;
-                if (i < attack) env = (double) i / attack;
-                else if (i > samplesPerNote - decay) env = (double) (samplesPerNote - i) / decay;
-                double s = sample * vol * env;
-                s = Math.max(-1.0, Math.min(1.0, s));
-                buf[base + i] = (byte) (s * 127.0);
-            }
-        }
-
-        int echoDelay = 1200;
-        double echoAtt = 0.45;
-        for (int i = 0; i + echoDelay < buf.length; i++) {
-            int src = i;
-            int dst = i + echoDelay;
-            if (dst < buf.length) {
-                int mixed = buf[dst] + (int) (buf[src] * echoAtt);
-                mixed = Math.max(-127, Math.min(127, mixed));
-                buf[dst] = (byte) mixed;
-            }
-        }
-        return buf;
-    }
-    
-    private byte[] generateWrongSound() {
-        final float SAMPLE_RATE = 44100f;
-        final int ms = 260;
-        int len = (int) (SAMPLE_RATE * ms / 1000);
-        byte[] buf = new byte[len];
-        double baseFreq = 160;
-
-        for (int i = 0; i < len; i++) {
-            double t = (double) i / SAMPLE_RATE;
-            double sq = Math.signum(Math.sin(2.0 * Math.PI * baseFreq * t));
-            double bite = 0.4 * Math.sin(2.0 * Math.PI * baseFreq * 5.3 * t);
-            double env = Math.exp(-6.0 * t);
-            double noise = (Math.random() - 0.5) * 0.12;
-            double s = (sq * 0.9 + bite) * env + noise;
-            s = Math.max(-1.0, Math.min(1.0, s));
-            buf[i] = (byte) (s * 127.0);
-        }
-        return buf;
-    }
-    
-    private byte[] generateGameOverScreamSound() {
-        final float SAMPLE_RATE = 44100f;
-        final int ms = 1100;
-        int len = (int) (SAMPLE_RATE * ms / 1000);
-        byte[] buf = new byte[len + 5000];
-
-        for (int i = 0; i < len; i++) {
-            double t = (double) i / SAMPLE_RATE;
-            double frac = (double) i / len;
-            double freq = 220 + 3000 * Math.pow(frac, 1.2);
-            double angle = 2.0 * Math.PI * freq * t;
-            double s = 0.7 * Math.sin(angle) + 0.3 * Math.sin(2 * angle) + 0.15 * Math.sin(3 * angle);
-            double noise = (Math.random() - 0.5) * (0.18 * Math.sin(Math.PI * frac));
-            double env;
-            if (frac < 0.15) env = frac / 0.15;
-            else env = 1.0 - Math.pow(frac, 2);
-            double sample = (s + noise) * env * 0.65;
-            sample = Math.max(-1.0, Math.min(1.0, sample));
-            buf[i] = (byte) (sample * 127.0);
-        }
-
-        int[] delays = {4000, 8000};
-        double[] atts = {0.45, 0.22};
-        for (int d = 0; d < delays.length; d++) {
-            int delay = delays[d];
-            double att = atts[d];
-            for (int i = 0; i + delay < buf.length; i++) {
-                int mixed = buf[i + delay] + (int) (buf[i] * att);
-                mixed = Math.max(-127, Math.min(127, mixed));
-                buf[i + delay] = (byte) mixed;
-            }
-        }
-        return buf;
-    }
-    
-    private byte[] generateGameOverSound() {
-        final float SAMPLE_RATE = 44100f;
-        final int ms = 700;
-        byte[] buf = new byte[(int) (SAMPLE_RATE * ms / 1000)];
-        double freq = 110;
-        for (int i = 0; i < buf.length; i++) {
-            double t = (double) i / SAMPLE_RATE;
-            double angle = 2.0 * Math.PI * i * freq / SAMPLE_RATE;
-            double env = 1.0 - (double) i / buf.length;
-            buf[i] = (byte) (Math.sin(angle) * 127.0 * 0.35 * env);
-        }
-        return buf;
-    }
-    
     private void playSuccessTone() {
-        playSound(generateSuccessSound());
+        sounds.play(SoundBank.Sound.SUCCESS);
     }
     
     private void playLevelUpTone() {
-        playSound(generateLevelUpSound());
+        sounds.play(SoundBank.Sound.LEVEL_UP);
     }
     
     private void playGameOverTone() {
-        playSound(generateGameOverSound());
+        sounds.play(SoundBank.Sound.GAME_OVER);
     }
     
     private void playGoodJobTone() {
-        playSound(generateGoodJobSound());
+        sounds.play(SoundBank.Sound.GOOD_JOB);
     }
     
     private void playWrongTone() {
-        playSound(generateWrongSound());
+        sounds.play(SoundBank.Sound.WRONG);
     }
     
     private void playGameOverScream() {
-        playSound(generateGameOverScreamSound());
+        sounds.play(SoundBank.Sound.SCREAM);
     }
     
     private void showJumpscare(int remainingLives) {
@@ -808,7 +659,7 @@ public class GameGUI extends JFrame {
         levelUpPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
         JLabel titleLabel = new JLabel("LEVEL UP!", JLabel.CENTER);
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 28));
+        titleLabel.setFont(DIALOG_TITLE_FONT);
         titleLabel.setForeground(new Color(255, 215, 0)); 
         
         JLabel messageLabel = new JLabel("<html><div style='text-align: center;'>" +
@@ -823,6 +674,14 @@ public class GameGUI extends JFrame {
             JOptionPane.INFORMATION_MESSAGE);
     }
     
+    // Rank by lifetime best score across all stored profiles; empty without a profile store,
+    // since a rank among this process's players alone would always read 1 of 1.
+    private String rankText(Player player, String format) {
+        if (profiles == null) return "";
+        int rank = profiles.rank(player.getName());
+        return (rank > 0) ? String.format(format, rank, profiles.getLeaderboard().size()) : "";
+    }
+
     private void gameOver() {
         playGameOverScream();
 
@@ -833,21 +692,23 @@ public class GameGUI extends JFrame {
         gameOverPanel.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
         
         JLabel emojiLabel = new JLabel("💀", JLabel.CENTER);
-        emojiLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 64));
+        emojiLabel.setFont(GAME_OVER_EMOJI_FONT);
         
         String message = String.format(
             "<html><div style='text-align: center; color: white;'>" +
             "<b style='color: #FF6B6B; font-size: 24px;'>GAME OVER!</b><br><br>" +
             "<b>Nama:</b> %s<br>" +
             "<b>Level Tertinggi:</b> %d/8<br>" +
-            "<b>Score Akhir:</b> <span style='color: #FFD700;'>%d</span><br><br>" +
+            "<b>Score Akhir:</b> <span style='color: #FFD700;'>%d</span><br>" +
+            "%s<br>" +
             "<span style='color: #4ECDC4;'>Coba lagi untuk mencapai score yang lebih tinggi!</span>" +
             "</div></html>",
-            player.getName(), player.getLevel(), player.getScore()
+            player.getName(), player.getLevel(), player.getScore(),
+            rankText(player, "<b>Peringkat:</b> #%d dari %d pemain<br>")
         );
         
         JLabel messageLabel = new JLabel(message, JLabel.CENTER);
-        messageLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        messageLabel.setFont(DIALOG_TEXT_FONT);
         
         gameOverPanel.add(emojiLabel, BorderLayout.NORTH);
         gameOverPanel.add(messageLabel, BorderLayout.CENTER);
@@ -866,11 +727,9 @@ public class GameGUI extends JFrame {
     
     private void restartGame() {
         String playerName = gameService.getPlayer().getName();
-        gameService = new GameService(playerName);
-        usedQuestions.clear();
-        lastQuestion = "";
+        gameService.shutdown();
+        gameService = createGameService(playerName);
         gameService.startNewQuestion();
-        preventDuplicateQuestion();
         updateUI();
         if (cardLayout != null && mainPanel != null) {
             cardLayout.show(mainPanel, "game");
@@ -879,9 +738,19 @@ public class GameGUI extends JFrame {
         }
     }
     
+    // The completion dialog is modal, so it opens only after the ui.update sample is taken.
     private void updateUI() {
+        long start = GameMetrics.start();
+        boolean complete = renderGameState();
+        GameMetrics.get().recordUpdateUi(start);
+        if (complete) showQuizCompletionDialog();
+    }
+    
+    // Returns true when the quiz is complete and the completion dialog is due.
+    private boolean renderGameState() {
         Player player = gameService.getPlayer();
         MathQuestion question = gameService.getCurrentQuestion();
+        boolean complete = false;
 
         updateCompactStatCard(playerNameLabel, player.getName());
         updateCompactStatCard(scoreLabel, String.valueOf(player.getScore()));
@@ -906,42 +775,36 @@ public class GameGUI extends JFrame {
             player.getLevelProgress().getQuestionsInCurrentLevel()));
 
         if (question != null) {
-            String questionText = "<html><div style='text-align: center; padding: 10px;'>" +
-                "<span style='color: #4ECDC4; font-size: 30px; font-weight: bold; line-height: 1.5;'>" + 
-                question.getQuestion() + 
-                "</span></div></html>";
-            questionLabel.setText(questionText);
+            questionLabel.setForeground(QUESTION_COLOR);
+            questionLabel.setText(question.getQuestion());
 
             String[] options = question.getOptions();
             for (int i = 0; i < 4; i++) {
                 if (i < options.length && options[i] != null) {
-                    String buttonText = "<html><div style='text-align: center; padding: 15px;'>" + 
-                                    "<span style='font-size: 20px; font-weight: bold;'>" + 
-                                    options[i] + 
-                                    "</span></div></html>";
-                    optionButtons[i].setText(buttonText);
+                    optionButtons[i].setText(options[i]);
                     optionButtons[i].setEnabled(true);
                     optionButtons[i].setVisible(true);
                 } else {
-                    optionButtons[i].setText("<html><div style='text-align: center; padding: 15px;'>?</div></html>");
+                    optionButtons[i].setText("?");
                     optionButtons[i].setEnabled(false);
                 }
             }
             
         } else if (gameService.isQuizComplete()) {
-            showQuizCompletionDialog();
+            complete = true;
         } else {
-            questionLabel.setText("<html><div style='text-align: center; color: red; padding: 20px;'>" +
-                                "ERROR: Tidak ada pertanyaan.<br>Tekan F5 untuk refresh.</div></html>");
+            questionLabel.setForeground(Color.RED);
+            questionLabel.setText("ERROR: Tidak ada pertanyaan.\nTekan F5 untuk refresh.");
             
             for (JButton btn : optionButtons) {
-                btn.setText("<html><div style='text-align: center; padding: 15px;'>?</div></html>");
+                btn.setText("?");
                 btn.setEnabled(false);
             }
         }
         
         mainPanel.revalidate();
         mainPanel.repaint();
+        return complete;
     }
     
     private void showQuizCompletionDialog() {
@@ -955,7 +818,7 @@ public class GameGUI extends JFrame {
         ));
 
         JLabel trophyLabel = new JLabel("🏆🎉🎊🌟", JLabel.CENTER);
-        trophyLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 72));
+        trophyLabel.setFont(TROPHY_FONT);
 
         String message = String.format(
             "<html><div style='text-align: center;'>" +
@@ -963,14 +826,15 @@ public class GameGUI extends JFrame {
             "<span style='color: #FFFFFF; font-size: 18px;'>%s</span><br><br>" +
             "<span style='color: #2EC4B6; font-size: 16px;'>Telah Menamatkan Semua Level! 🏅</span><br><br>" +
             "<span style='color: #FFD700; font-size: 16px;'>Level: <b>8/8</b> &nbsp;|&nbsp; " +
-            "Score: <b style='color: #FF5E7C;'>%d</b></span><br><br>" +
+            "Score: <b style='color: #FF5E7C;'>%d</b>%s</span><br><br>" +
             "<span style='color: #9B9BC8; font-size: 14px;'>Kamu adalah Juara Matematika! 🔥</span>" +
             "</div></html>",
-            player.getName().toUpperCase(), player.getScore()
+            player.getName().toUpperCase(), player.getScore(),
+            rankText(player, " &nbsp;|&nbsp; Peringkat: <b>#%d</b> dari %d")
         );
 
         JLabel messageLabel = new JLabel(message, JLabel.CENTER);
-        messageLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        messageLabel.setFont(DIALOG_TEXT_FONT);
 
         completionPanel.add(trophyLabel, BorderLayout.NORTH);
         completionPanel.add(messageLabel, BorderLayout.CENTER);
@@ -1003,7 +867,7 @@ public class GameGUI extends JFrame {
                     if (c instanceof JLabel) {
                         JLabel label = (JLabel) c;
                         if (label.getFont().getSize() == 18) {
-                            label.setText("<html><div style='text-align: center;'>" + newValue + "</div></html>");
+                            label.setText(newValue);
                             break;
                         }
                     }
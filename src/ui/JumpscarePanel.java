@@ -1,22 +1,133 @@
 package ui;
 
+import events.JumpscareShownEvent;
+
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.HashMap;
+import java.util.Map;
 
+// The jumpscare screen. The background gradient of each colour and each message with
+// its shadow and subtitle are rendered once into layers (VolatileImages when the panel
+// has a GraphicsConfiguration, BufferedImages otherwise); backgrounds are dropped on
+// resize, and a lost VolatileImage is re-rendered before use. One 16 ms timer drives
+// the animation, which only composites the cached layers: the message fades in, pulses
+// and shakes with decaying strength, then fades out before the scare ends.
 public class JumpscarePanel extends JPanel {
-    private Timer timer;
+    private static final Font MAIN_FONT = Typography.font(Typography.EMOJI, Font.BOLD, 56);
+    private static final Font SUB_FONT = Typography.font(Typography.TEXT, Font.BOLD, 22);
+    private static final String SUB_MESSAGE = "Kamu kehilangan 1 nyawa!";
+    private static final int DURATION_MS = 2000;
+    private static final int FRAME_MS = 16;
+    private static final int FADE_IN_MS = 150;
+    private static final int FADE_OUT_MS = 400;
+    private static final double SHAKE_PX = 12;
+    private static final double PULSE = 0.06;
+    private static final double PULSE_MS = 250;
+    // The pulse steps between pre-rendered sizes; scaling a layer per frame costs more
+    // in the software pipeline than the rest of the frame together.
+    private static final int PULSE_STEPS = 5;
+
+    private final FontMetrics mainMetrics = Typography.metrics(MAIN_FONT);
+    private final FontMetrics subMetrics = Typography.metrics(SUB_FONT);
+    private final int subWidth = subMetrics.stringWidth(SUB_MESSAGE);
+    private final Timer timer;
+    private final Map<Color, Layer> backgrounds = new HashMap<>();
+    private final Map<String, Layer[]> messages = new HashMap<>();
+    private int layerWidth = -1, layerHeight = -1;
+
     private boolean showScare;
+    private long startNanos;
     private String scareMessage;
+    private Layer[] messageLayers;
     private Color primaryColor = Color.RED;
     private Color accent = Color.YELLOW;
 
+    // An image rendered once and blitted every frame.
+    private abstract static class Layer {
+        final int width, height;
+        final boolean opaque;
+        private Image image;
+
+        Layer(int width, int height, boolean opaque) {
+            this.width = Math.max(1, width);
+            this.height = Math.max(1, height);
+            this.opaque = opaque;
+        }
+
+        abstract void render(Graphics2D g);
+
+        Image get(GraphicsConfiguration gc) {
+            if (image instanceof VolatileImage) {
+                VolatileImage volatileImage = (VolatileImage) image;
+                int state = volatileImage.validate(gc);
+                if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    flush();
+                } else if (state == VolatileImage.IMAGE_RESTORED) {
+                    draw();
+                }
+            }
+            if (image == null) {
+                image = create(gc);
+                draw();
+            }
+            return image;
+        }
+
+        // A VolatileImage can lose its contents while being drawn; redo it next frame.
+        void checkLost() {
+            if (image instanceof VolatileImage && ((VolatileImage) image).contentsLost()) flush();
+        }
+
+        void flush() {
+            if (image != null) image.flush();
+            image = null;
+        }
+
+        private Image create(GraphicsConfiguration gc) {
+            int transparency = opaque ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+            if (gc != null) {
+                try {
+                    return gc.createCompatibleVolatileImage(width, height, transparency);
+                } catch (RuntimeException e) {
+                    return gc.createCompatibleImage(width, height, transparency);
+                }
+            }
+            return new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+
+        private void draw() {
+            Graphics2D g = (Graphics2D) image.getGraphics();
+            try {
+                if (!opaque) {
+                    g.setComposite(AlphaComposite.Clear);
+                    g.fillRect(0, 0, width, height);
+                    g.setComposite(AlphaComposite.SrcOver);
+                }
+                render(g);
+            } finally {
+                g.dispose();
+            }
+        }
+    }
+
     public JumpscarePanel() {
         setPreferredSize(new Dimension(800, 600));
         setBackground(Color.BLACK);
+        setOpaque(true);
         showScare = false;
 
+        timer = new Timer(FRAME_MS, e -> {
+            if (elapsedMillis() >= DURATION_MS) {
+                showScare = false;
+                ((Timer) e.getSource()).stop();
+            }
+            repaint();
+        });
+        timer.setCoalesce(true);
+
         Toolkit.getDefaultToolkit().beep();
     }
 
@@ -35,20 +146,19 @@ public class JumpscarePanel extends JPanel {
             primaryColor = Color.RED;
             accent = Color.YELLOW;
         }
+        messageLayers = messages.computeIfAbsent(scareMessage + '\0' + accent.getRGB(),
+                                                 key -> new Layer[PULSE_STEPS]);
 
-        repaint();
+        JumpscareShownEvent event = new JumpscareShownEvent();
+        if (event.shouldCommit()) {
+            event.remainingLives = remainingLives;
+            event.message = scareMessage;
+            event.commit();
+        }
 
-        if (timer != null && timer.isRunning()) timer.stop();
-        timer = new Timer(2000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                showScare = false;
-                timer.stop();
-                repaint();
-            }
-        });
-        timer.setRepeats(false);
-        timer.start();
+        startNanos = System.nanoTime();
+        timer.restart();
+        repaint();
     }
 
     private String generateScareMessage() {
@@ -61,42 +171,97 @@ public class JumpscarePanel extends JPanel {
         return messages[(int) (Math.random() * messages.length)];
     }
 
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static double pulseScale(int step) {
+        return 1.0 + PULSE * (2.0 * step / (PULSE_STEPS - 1) - 1);
+    }
+
+    // The message, its shadow and the subtitle, drawn at the given scale.
+    private Layer messageLayer(String message, Color color, double scale) {
+        int messageWidth = mainMetrics.stringWidth(message);
+        int unscaledWidth = Math.max(messageWidth + 4, subWidth);
+        int mainBaseline = mainMetrics.getAscent();
+        int subBaseline = mainBaseline + mainMetrics.getDescent() + subMetrics.getAscent() + 12;
+        int unscaledHeight = subBaseline + subMetrics.getDescent() + 4;
+        return new Layer((int) Math.ceil(unscaledWidth * scale), (int) Math.ceil(unscaledHeight * scale), false) {
+            @Override
+            void render(Graphics2D g) {
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g.scale(scale, scale);
+                int mainX = (unscaledWidth - messageWidth - 4) / 2;
+                g.setFont(MAIN_FONT);
+                g.setColor(Color.BLACK);
+                g.drawString(message, mainX + 4, mainBaseline + 4);
+                g.setColor(color);
+                g.drawString(message, mainX, mainBaseline);
+
+                g.setFont(SUB_FONT);
+                g.drawString(SUB_MESSAGE, (unscaledWidth - subWidth) / 2, subBaseline);
+            }
+        };
+    }
+
+    private Layer background(Color color) {
+        int width = getWidth(), height = getHeight();
+        return new Layer(width, height, true) {
+            @Override
+            void render(Graphics2D g) {
+                g.setPaint(new GradientPaint(0, 0, color, width, height, Color.DARK_GRAY));
+                g.fillRect(0, 0, width, height);
+            }
+        };
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-
-        Graphics2D g2d = (Graphics2D) g.create();
-        GradientPaint gradient = new GradientPaint(0, 0, primaryColor, getWidth(), getHeight(), Color.DARK_GRAY);
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-
-        if (showScare) {
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-            Font mainFont = new Font("Segoe UI Emoji", Font.BOLD, 56);
-            g2d.setFont(mainFont);
-            FontMetrics fmMain = g2d.getFontMetrics(mainFont);
-            int mainWidth = fmMain.stringWidth(scareMessage);
-            int mainX = (getWidth() - mainWidth) / 2;
-            int mainY = (getHeight() - fmMain.getHeight()) / 2 + fmMain.getAscent();
-
-            g2d.setColor(Color.BLACK);
-            g2d.drawString(scareMessage, mainX + 4, mainY + 4);
-
-            g2d.setColor(accent);
-            g2d.drawString(scareMessage, mainX, mainY);
-
-            Font subFont = new Font("Segoe UI", Font.BOLD, 22);
-            g2d.setFont(subFont);
-            FontMetrics fmSub = g2d.getFontMetrics(subFont);
-            String sub = "Kamu kehilangan 1 nyawa!";
-            int subWidth = fmSub.stringWidth(sub);
-            int subX = (getWidth() - subWidth) / 2;
-            int subY = mainY + fmMain.getDescent() + fmSub.getAscent() + 12;
-            g2d.setColor(accent);
-            g2d.drawString(sub, subX, subY);
+        if (getWidth() != layerWidth || getHeight() != layerHeight) {
+            for (Layer layer : backgrounds.values()) layer.flush();
+            backgrounds.clear();
+            layerWidth = getWidth();
+            layerHeight = getHeight();
         }
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        Layer background = backgrounds.computeIfAbsent(primaryColor, this::background);
+        g.drawImage(background.get(gc), 0, 0, null);
+        background.checkLost();
+
+        if (showScare && messageLayers != null) {
+            Graphics2D g2d = (Graphics2D) g.create();
+            drawMessage(g2d, gc, elapsedMillis());
+            g2d.dispose();
+        }
+    }
+
+    private void drawMessage(Graphics2D g, GraphicsConfiguration gc, long elapsed) {
+        float alpha = 1f;
+        if (elapsed < FADE_IN_MS) alpha = (float) elapsed / FADE_IN_MS;
+        else if (elapsed > DURATION_MS - FADE_OUT_MS) alpha = (float) (DURATION_MS - elapsed) / FADE_OUT_MS;
+        alpha = Math.max(0f, Math.min(1f, alpha));
+        if (alpha == 0f) return;
+
+        double strength = 1.0 - (double) elapsed / DURATION_MS;
+        int dx = (int) Math.round(SHAKE_PX * strength * Math.sin(elapsed * 0.09));
+        int dy = (int) Math.round(SHAKE_PX * strength * Math.cos(elapsed * 0.13));
+        double pulse = Math.sin(2 * Math.PI * elapsed / PULSE_MS);
+        int step = (int) Math.round((pulse + 1) / 2 * (PULSE_STEPS - 1));
+        Layer layer = messageLayers[step];
+        if (layer == null) {
+            layer = messageLayer(scareMessage, accent, pulseScale(step));
+            messageLayers[step] = layer;
+        }
+
+        // At the middle step the main line sits where it was always drawn: vertically centred.
+        Layer unscaled = messageLayers[PULSE_STEPS / 2];
+        int unscaledHeight = (unscaled != null) ? unscaled.height
+                                                : (int) Math.round(layer.height / pulseScale(step));
+        int x = getWidth() / 2 + dx - layer.width / 2;
+        int y = (getHeight() - mainMetrics.getHeight()) / 2 + dy - (layer.height - unscaledHeight) / 2;
 
-        g2d.dispose();
+        if (alpha < 1f) g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g.drawImage(layer.get(gc), x, y, null);
+        layer.checkLost();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package ui;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+
+// A centred block of plain text, for the question that changes every round. Unlike a
+// JLabel there is no HTML or label layout on setText(): the text is looked up in the
+// TextBlock cache, and the component only revalidates when the block changes size.
+class QuizText extends JComponent {
+    private String text = "";
+    private TextBlock block;
+
+    QuizText(Font font, Color color) {
+        setFont(font);
+        setForeground(color);
+    }
+
+    String getText() {
+        return text;
+    }
+
+    void setText(String text) {
+        if (text.equals(this.text)) return;
+        TextBlock previous = block();
+        this.text = text;
+        block = null;
+        if (block().width != previous.width || block().height != previous.height) revalidate();
+        repaint();
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        block = null;
+        revalidate();
+    }
+
+    private TextBlock block() {
+        if (block == null) block = TextBlock.of(text, getFont());
+        return block;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        Insets insets = getInsets();
+        return new Dimension(block().width + insets.left + insets.right, block().height + insets.top + insets.bottom);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Insets insets = getInsets();
+        TextBlock text = block();
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setColor(getForeground());
+        text.draw(g2, insets.left + (getWidth() - insets.left - insets.right - text.width) / 2f,
+                  insets.top + (getHeight() - insets.top - insets.bottom - text.height) / 2f);
+        g2.dispose();
+    }
+}
@@ -0,0 +1,78 @@
+package ui;
+
+import javax.swing.JButton;
+import javax.swing.SwingConstants;
+import javax.swing.UIManager;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+
+// A filled, rounded answer button. The label is plain text drawn from the TextBlock
+// cache in the button's font rather than by the button UI, so a new option is a cache
+// lookup instead of an HTML parse and layout.
+class RoundedButton extends JButton {
+    private static final int CORNER_RADIUS = 25;
+
+    private TextBlock block;
+
+    RoundedButton(String text) {
+        super(text);
+        setContentAreaFilled(false);
+        setFocusPainted(false);
+        setBorderPainted(false);
+        setHorizontalTextPosition(SwingConstants.CENTER);
+        setVerticalTextPosition(SwingConstants.CENTER);
+    }
+
+    @Override
+    public void setText(String text) {
+        super.setText(text);
+        block = null;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        block = null;
+    }
+
+    private TextBlock block() {
+        if (block == null) block = TextBlock.of(getText(), getFont());
+        return block;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        Insets insets = getInsets();
+        return new Dimension(block().width + insets.left + insets.right, block().height + insets.top + insets.bottom);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        if (getModel().isPressed()) {
+            g2.setColor(getBackground().darker());
+        } else if (getModel().isRollover()) {
+            g2.setColor(getBackground().brighter());
+        } else {
+            g2.setColor(getBackground());
+        }
+        g2.fillRoundRect(0, 0, getWidth(), getHeight(), CORNER_RADIUS, CORNER_RADIUS);
+
+        Color disabled = UIManager.getColor("textInactiveText");
+        g2.setColor(isEnabled() || disabled == null ? getForeground() : disabled);
+        Insets insets = getInsets();
+        TextBlock text = block();
+        text.draw(g2, insets.left + (getWidth() - insets.left - insets.right - text.width) / 2f,
+                  insets.top + (getHeight() - insets.top - insets.bottom - text.height) / 2f);
+        g2.dispose();
+    }
+}
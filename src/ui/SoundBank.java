@@ -0,0 +1,193 @@
+package ui;
+
+import events.SoundPlayedEvent;
+import logging.LogSite;
+import logging.QuizLog;
+
+import javax.sound.sampled.LineUnavailableException;
+import java.awt.Toolkit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Every sound effect, synthesized once by a background loader and played through the
+// AudioMixer, so the feedback for an answer costs no synthesis or line setup on the EDT
+// and overlapping sounds share one audio line. A sound that is still loading is skipped;
+// without an audio device play() falls back to a beep.
+public class SoundBank implements AutoCloseable {
+    public enum Sound {
+        SUCCESS("success"),
+        LEVEL_UP("levelUp"),
+        GOOD_JOB("goodJob"),
+        WRONG("wrong"),
+        SCREAM("gameOverScream"),
+        GAME_OVER("gameOver");
+
+        private final String label;
+
+        Sound(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final LogSite LOAD_FAILED = new LogSite("SoundBank.load", QuizLog.Level.WARN);
+    private static final int SOUNDS = Sound.values().length;
+
+    private final AtomicReferenceArray<byte[]> samples = new AtomicReferenceArray<>(SOUNDS);
+    // Written by the loader before the sound's samples are published.
+    private final long[] synthesisNanos = new long[SOUNDS];
+    private volatile AudioMixer mixer;
+    private volatile boolean unavailable;
+    private boolean closed;
+
+    public void start() {
+        Thread loader = new Thread(this::load, "sound-bank-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isLoaded(Sound sound) {
+        return samples.get(sound.ordinal()) != null;
+    }
+
+    public void play(Sound sound) {
+        int s = sound.ordinal();
+        byte[] pcm = samples.get(s);
+        if (pcm == null) {
+            if (unavailable) Toolkit.getDefaultToolkit().beep();
+            return;
+        }
+
+        SoundPlayedEvent event = new SoundPlayedEvent();
+        event.begin();
+        boolean queued = mixer.play(pcm);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sound = sound.getLabel();
+            event.bufferBytes = pcm.length;
+            event.queued = queued;
+            event.synthesisNanos = synthesisNanos[s];
+            event.commit();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (int s = 0; s < SOUNDS; s++) samples.set(s, null);
+        if (mixer != null) mixer.close();
+    }
+
+    private void load() {
+        AudioMixer opened;
+        try {
+            opened = new AudioMixer();
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            unavailable = true;
+            LOAD_FAILED.log("No audio output, falling back to beeps", e);
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                opened.close();
+                return;
+            }
+            opened.start();
+            mixer = opened;
+        }
+
+        for (Sound sound : Sound.values()) {
+            long start = System.nanoTime();
+            byte[] data = synthesize(sound);
+            long nanos = System.nanoTime() - start;
+            synchronized (this) {
+                if (closed) return;
+                synthesisNanos[sound.ordinal()] = nanos;
+                samples.set(sound.ordinal(), data);
+            }
+        }
+    }
+
+    static byte[] synthesize(Sound sound) {
+        switch (sound) {
+            case SUCCESS:   return generateSuccessSound();
+            case LEVEL_UP:  return generateLevelUpSound();
+            case GOOD_JOB:  return generateGoodJobSound();
+            case WRONG:     return generateWrongSound();
+            case SCREAM:    return generateGameOverScreamSound();
+            case GAME_OVER: return generateGameOverSound();
+            default:
+                throw new IllegalArgumentException("Unknown sound " + sound);
+        }
+    }
+
+    static byte[] generateSuccessSound() {
+        return twoNotes(Synth.frames(160), 880, 1320, 0.25f, Synth.frames(10));
+    }
+
+    static byte[] generateLevelUpSound() {
+        return twoNotes(Synth.frames(120), 660, 880, 0.25f, 0);
+    }
+
+    private static byte[] twoNotes(int note, double f1, double f2, float volume, int release) {
+        float[] out = new float[note * 2];
+        Synth.tone(out, 0, note, Synth.SINE, f1, volume);
+        Synth.tone(out, note, note, Synth.SINE, f2, volume);
+        for (int base = 0; base < out.length; base += note) {
+            Synth.attackRelease(out, base, note, Synth.frames(10), release);
+        }
+        return Synth.toPcm8(out);
+    }
+
+    static byte[] generateGoodJobSound() {
+        int note = Synth.frames(160);
+        double[] freqs = {880, 1108};
+        float[] out = new float[note * freqs.length + 4000];
+        for (int n = 0; n < freqs.length; n++) {
+            Synth.tone(out, n * note, note, Synth.SINE, freqs[n], 0.45f);
+            Synth.tone(out, n * note, note, Synth.SINE, 2 * freqs[n], 0.45f * 0.4f);
+            Synth.attackRelease(out, n * note, note, Synth.frames(10), Synth.frames(60));
+        }
+        Synth.clamp(out);
+        Synth.echo(out, 1200, 0.45f);
+        return Synth.toPcm8(out);
+    }
+
+    static byte[] generateWrongSound() {
+        float[] out = new float[Synth.frames(260)];
+        Synth.tone(out, 0, out.length, Synth.SQUARE, 160, 0.9f);
+        Synth.tone(out, 0, out.length, Synth.SINE, 160 * 5.3, 0.4f);
+        Synth.exponentialDecay(out, 0, out.length, 6.0);
+        Synth.noise(out, 0, out.length, 0.06f, 0x5EED);
+        return Synth.toPcm8(out);
+    }
+
+    static byte[] generateGameOverScreamSound() {
+        int length = Synth.frames(1100);
+        float[] out = new float[length + 5000];
+        int[] phases = Synth.sweep(length, 220, 3220, 1.2);
+        Synth.harmonics(out, 0, phases, Synth.SINE, 0.7f, 0.3f, 0.15f);
+
+        // Noise swells with a half sine; the envelope rises over 15% and falls as 1 - frac^2.
+        float[] noise = new float[length];
+        Synth.noise(noise, 0, length, 0.09f, 0x5C2EA);
+        int halfCycle = (int) (0x80000000L / length);
+        float step = 1f / length;
+        for (int i = 0; i < length; i++) {
+            float frac = i * step;
+            float env = (frac < 0.15f) ? frac / 0.15f : 1f - frac * frac;
+            out[i] = (out[i] + noise[i] * Synth.lookup(Synth.SINE, i * halfCycle)) * env * 0.65f;
+        }
+        Synth.clamp(out);
+        Synth.echo(out, 4000, 0.45f);
+        Synth.echo(out, 8000, 0.22f);
+        return Synth.toPcm8(out);
+    }
+
+    static byte[] generateGameOverSound() {
+        float[] out = new float[Synth.frames(700)];
+        Synth.tone(out, 0, out.length, Synth.SINE, 110, 0.35f);
+        Synth.fadeOut(out, 0, out.length);
+        return Synth.toPcm8(out);
+    }
+}
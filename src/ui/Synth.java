@@ -0,0 +1,141 @@
+package ui;
+
+// Building blocks for the sound effects, working on float buffers in [-1, 1] at
+// AudioMixer.SAMPLE_RATE. Oscillators read 4096-entry wavetables with a 32-bit phase
+// accumulator (2^32 = one cycle, so harmonics wrap for free); the nearest entry is
+// within 0.2% of full scale, well under one step of the 8-bit output. Envelopes are
+// ramps and multiplicative decays instead of per-sample exp/pow. Echoes work a
+// delay-sized block at a time: each block only reads samples that are already final,
+// so the inner loop is a plain multiply-add over two arrays that C2 vectorizes.
+final class Synth {
+    static final int TABLE_BITS = 12;
+    static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int INDEX_SHIFT = 32 - TABLE_BITS;
+    private static final double PHASE_SCALE = 4294967296.0;
+    private static final int SWEEP_SEGMENTS = 256;
+
+    static final float[] SINE = new float[TABLE_SIZE];
+    static final float[] SQUARE = new float[TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            SINE[i] = (float) Math.sin(2 * Math.PI * i / TABLE_SIZE);
+            SQUARE[i] = (i == 0 || i == TABLE_SIZE / 2) ? 0 : (i < TABLE_SIZE / 2) ? 1 : -1;
+        }
+    }
+
+    private Synth() {
+    }
+
+    static int frames(int millis) {
+        return (int) (AudioMixer.SAMPLE_RATE * millis / 1000);
+    }
+
+    static int phaseIncrement(double freq) {
+        return (int) (long) (freq / AudioMixer.SAMPLE_RATE * PHASE_SCALE);
+    }
+
+    static float lookup(float[] table, int phase) {
+        return table[phase >>> INDEX_SHIFT];
+    }
+
+    // Adds a fixed-frequency oscillator starting at phase 0.
+    static void tone(float[] out, int from, int length, float[] table, double freq, float gain) {
+        int increment = phaseIncrement(freq);
+        int phase = 0;
+        for (int i = from, end = from + length; i < end; i++, phase += increment) {
+            out[i] += lookup(table, phase) * gain;
+        }
+    }
+
+    // Phases of a tone whose frequency follows f0 + (f1 - f0) * frac^exponent, taken as
+    // freq(t) * t cycles so the sweep accelerates like the original scream did. The curve
+    // is evaluated at SWEEP_SEGMENTS knots and interpolated linearly in between.
+    static int[] sweep(int length, double f0, double f1, double exponent) {
+        int[] phases = new int[length];
+        double toCycles = 1.0 / AudioMixer.SAMPLE_RATE;
+        double freq = f0;
+        for (int k = 0; k < SWEEP_SEGMENTS; k++) {
+            int from = (int) ((long) length * k / SWEEP_SEGMENTS);
+            int to = (int) ((long) length * (k + 1) / SWEEP_SEGMENTS);
+            if (to == from) continue;
+            double end = f0 + (f1 - f0) * Math.pow((double) to / length, exponent);
+            double step = (end - freq) / (to - from);
+            for (int i = from; i < to; i++, freq += step) {
+                // The long keeps the whole cycle count; its low 32 bits are the phase.
+                phases[i] = (int) (long) (freq * i * toCycles * PHASE_SCALE);
+            }
+            freq = end;
+        }
+        return phases;
+    }
+
+    // Adds harmonics 1..gains.length of a precomputed phase run in one pass.
+    static void harmonics(float[] out, int from, int[] phases, float[] table, float... gains) {
+        for (int i = 0; i < phases.length; i++) {
+            int phase = phases[i];
+            float sum = 0;
+            for (int h = 0; h < gains.length; h++) sum += table[(phase * (h + 1)) >>> INDEX_SHIFT] * gains[h];
+            out[from + i] += sum;
+        }
+    }
+
+    // Linear fade-in over attack frames and fade-out over release frames.
+    static void attackRelease(float[] out, int from, int length, int attack, int release) {
+        float step = 1f / attack;
+        for (int i = 0; i < attack && i < length; i++) out[from + i] *= i * step;
+        if (release <= 0) return;
+        step = 1f / release;
+        for (int i = Math.max(length - release + 1, attack); i < length; i++) out[from + i] *= (length - i) * step;
+    }
+
+    static void fadeOut(float[] out, int from, int length) {
+        float step = 1f / length;
+        for (int i = 0; i < length; i++) out[from + i] *= 1f - i * step;
+    }
+
+    // Multiplies by exp(-rate * t), t in seconds, by repeated multiplication.
+    static void exponentialDecay(float[] out, int from, int length, double rate) {
+        float factor = (float) Math.exp(-rate / AudioMixer.SAMPLE_RATE);
+        float env = 1f;
+        for (int i = from, end = from + length; i < end; i++, env *= factor) out[i] *= env;
+    }
+
+    // Adds uniform noise in [-amplitude, amplitude). Each sample hashes its own index, so
+    // there is no generator state carried between iterations.
+    static void noise(float[] out, int from, int length, float amplitude, int seed) {
+        float scale = amplitude / (1 << 23);
+        for (int i = 0; i < length; i++) {
+            int x = (i + seed) * 0x9E3779B9;
+            x ^= x >>> 16;
+            x *= 0x85EBCA6B;
+            x ^= x >>> 13;
+            out[from + i] += (x >> 8) * scale;
+        }
+    }
+
+    static void clamp(float[] out) {
+        for (int i = 0; i < out.length; i++) out[i] = Math.max(-1f, Math.min(1f, out[i]));
+    }
+
+    // Feedback echo: out[i + delay] += out[i] * gain, in ascending i, so echoes repeat.
+    static void echo(float[] out, int delay, float gain) {
+        if (delay <= 0) throw new IllegalArgumentException("delay must be positive: " + delay);
+        float[] block = new float[Math.min(delay, out.length)];
+        for (int start = 0; start + delay < out.length; start += delay) {
+            int n = Math.min(delay, out.length - delay - start);
+            System.arraycopy(out, start, block, 0, n);
+            int target = start + delay;
+            for (int i = 0; i < n; i++) out[target + i] += block[i] * gain;
+        }
+    }
+
+    static byte[] toPcm8(float[] samples) {
+        byte[] pcm = new byte[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            float s = Math.max(-1f, Math.min(1f, samples[i]));
+            pcm[i] = (byte) (s * 127f);
+        }
+        return pcm;
+    }
+}
@@ -0,0 +1,79 @@
+package ui;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.font.TextLayout;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Plain text laid out once for drawing: one TextLayout per '\n'-separated line, each
+// centred on the widest. Blocks are cached per font in a small LRU keyed by the string,
+// so a repeated question or option costs a map lookup. Only the EDT uses the cache.
+final class TextBlock {
+    private static final int CACHE_SIZE = 256;
+    // Antialiased, integer metrics: the hints the components paint with.
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, false);
+    private static final Map<Font, Map<String, TextBlock>> cache = new HashMap<>();
+
+    final int width, height;
+    private final TextLayout[] lines;
+    private final float[] offsets;
+    private final float[] baselines;
+
+    static TextBlock of(String text, Font font) {
+        Map<String, TextBlock> blocks = cache.computeIfAbsent(font, f -> new LinkedHashMap<String, TextBlock>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TextBlock> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+        TextBlock block = blocks.get(text);
+        if (block == null) {
+            block = new TextBlock(text, font);
+            blocks.put(text, block);
+        }
+        return block;
+    }
+
+    private TextBlock(String text, Font font) {
+        String[] parts = text.split("\n", -1);
+        lines = new TextLayout[parts.length];
+        offsets = new float[parts.length];
+        baselines = new float[parts.length];
+        float[] advances = new float[parts.length];
+        float y = 0, widest = 0;
+        for (int i = 0; i < parts.length; i++) {
+            float ascent, descent, leading;
+            if (parts[i].isEmpty()) {
+                // TextLayout rejects empty strings; an empty line still takes its height.
+                LineMetrics lm = font.getLineMetrics(" ", FRC);
+                ascent = lm.getAscent();
+                descent = lm.getDescent();
+                leading = lm.getLeading();
+            } else {
+                TextLayout layout = new TextLayout(parts[i], font, FRC);
+                lines[i] = layout;
+                ascent = layout.getAscent();
+                descent = layout.getDescent();
+                leading = layout.getLeading();
+                advances[i] = layout.getAdvance();
+                widest = Math.max(widest, advances[i]);
+            }
+            baselines[i] = y + ascent;
+            y += ascent + descent + leading;
+        }
+        for (int i = 0; i < parts.length; i++) offsets[i] = (widest - advances[i]) / 2;
+        width = (int) Math.ceil(widest);
+        height = (int) Math.ceil(y);
+    }
+
+    // Draws the block with its top-left corner at (x, y) in the graphics' current paint.
+    void draw(Graphics2D g, float x, float y) {
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] != null) lines[i].draw(g, x + offsets[i], y + baselines[i]);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ui;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Every font the UI draws with. A requested family is resolved once against the
+// installed families, falling through its fallback chain (the emoji chain ends at the
+// logical Dialog font, which borrows glyphs from other fonts), and each family/style/
+// size is created once and shared with its FontMetrics. prewarm() renders the strings
+// the game shows on a background thread so glyph rasterization happens before the
+// first frame that needs it.
+public final class Typography {
+    public static final String TEXT = "Segoe UI";
+    public static final String HEADING = "Arial";
+    public static final String EMOJI = "Segoe UI Emoji";
+    public static final String MONO = "Consolas";
+
+    private static final String[][] FALLBACKS = {
+        {TEXT, "Noto Sans", "DejaVu Sans", Font.SANS_SERIF},
+        {HEADING, "Liberation Sans", "Helvetica", "DejaVu Sans", Font.SANS_SERIF},
+        {EMOJI, "Apple Color Emoji", "Noto Color Emoji", "Noto Emoji", "Segoe UI Symbol", Font.DIALOG},
+        {MONO, "Menlo", "DejaVu Sans Mono", "Liberation Mono", Font.MONOSPACED},
+    };
+    private static final int EMOJI_PROBE = 0x1F3AF;
+
+    private static final String[] WARM_TEXT = {
+        "0123456789", "+-×÷=√²³%/()., ?", "abcdefghijklmnopqrstuvwxyz",
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZ", "BENAR! SALAH! HATI-HATI! AWAS! KESALAHAN FATAL! HAMPIR MATI!",
+        "Kamu kehilangan 1 nyawa!", "Nyawa Score Level Player Progress Level Soal: poin",
+        "LEVEL UP! Selamat! GAME OVER! Coba Lagi Keluar",
+        "❤❌⚡💀👻🔥🎯🎮🧠⭐🚀💖👤🏆🎉",
+    };
+
+    // Requested family -> installed family, and requested family -> (style << 16 | size) -> font.
+    private static final ConcurrentHashMap<String, String> families = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<Integer, Font>> fonts = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Font, FontMetrics> metrics = new ConcurrentHashMap<>();
+
+    private static final class Installed {
+        static final Set<String> NAMES =
+            new HashSet<>(Arrays.asList(GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames()));
+    }
+
+    // Shared with the metrics: antialiased text, as the panels draw it.
+    private static final class Measure {
+        static final Graphics2D GRAPHICS = create();
+
+        private static Graphics2D create() {
+            Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            return g;
+        }
+    }
+
+    private Typography() {
+    }
+
+    public static Font font(String family, int style, int size) {
+        if (size <= 0 || size > 0xFFFF) throw new IllegalArgumentException("size out of range: " + size);
+        ConcurrentHashMap<Integer, Font> sizes = fonts.computeIfAbsent(family, f -> new ConcurrentHashMap<>());
+        return sizes.computeIfAbsent((style << 16) | size, key -> new Font(families.computeIfAbsent(family, Typography::resolve), style, size));
+    }
+
+    public static FontMetrics metrics(Font font) {
+        return metrics.computeIfAbsent(font, f -> {
+            synchronized (Measure.GRAPHICS) {
+                return Measure.GRAPHICS.getFontMetrics(f);
+            }
+        });
+    }
+
+    // Renders the game's strings in every font created so far; returns the started thread.
+    public static Thread prewarm() {
+        Thread warmer = new Thread(() -> {
+            BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            for (ConcurrentHashMap<Integer, Font> sizes : fonts.values()) {
+                for (Font font : sizes.values()) {
+                    g.setFont(font);
+                    FontMetrics fm = metrics(font);
+                    for (String text : WARM_TEXT) {
+                        fm.stringWidth(text);
+                        g.drawString(text, 0, fm.getAscent());
+                    }
+                }
+            }
+            g.dispose();
+        }, "typography-prewarm");
+        warmer.setDaemon(true);
+        warmer.setPriority(Thread.MIN_PRIORITY);
+        warmer.start();
+        return warmer;
+    }
+
+    private static String resolve(String family) {
+        for (String[] chain : FALLBACKS) {
+            if (!chain[0].equals(family)) continue;
+            for (String candidate : chain) {
+                if (!isInstalled(candidate)) continue;
+                if (chain[0].equals(EMOJI) && !candidate.equals(Font.DIALOG)
+                        && !new Font(candidate, Font.PLAIN, 12).canDisplay(EMOJI_PROBE)) continue;
+                return candidate;
+            }
+            return chain[chain.length - 1];
+        }
+        return isInstalled(family) ? family : Font.DIALOG;
+    }
+
+    private static boolean isInstalled(String family) {
+        return Installed.NAMES.contains(family) || family.equals(Font.DIALOG) || family.equals(Font.SANS_SERIF);
+    }
+}